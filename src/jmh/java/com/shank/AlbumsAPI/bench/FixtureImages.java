@@ -0,0 +1,102 @@
+package com.shank.AlbumsAPI.bench;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Writes the committed fixture images in {@code src/jmh/resources/fixtures}.
+ * They are photo-like (gradients, shapes and grain, seeded) so resizing and
+ * encoding cost about what a real photo costs. Run it only to change them:
+ * {@code java src/jmh/java/com/shank/AlbumsAPI/bench/FixtureImages.java src/jmh/resources/fixtures}
+ */
+public final class FixtureImages {
+
+    // name, width, height, format
+    static final Object[][] IMAGES = {
+            {"small.jpg", 800, 600, "jpg"},
+            {"medium.jpg", 2048, 1536, "jpg"},
+            {"large.jpg", 4032, 3024, "jpg"},
+            {"medium.png", 1024, 768, "png"},
+    };
+
+    private FixtureImages() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "src/jmh/resources/fixtures");
+        Files.createDirectories(dir);
+        for (Object[] image : IMAGES) {
+            Path file = dir.resolve((String) image[0]);
+            write(draw((int) image[1], (int) image[2]), (String) image[3], file);
+            System.out.println(file + " " + Files.size(file) + " bytes");
+        }
+    }
+
+    static BufferedImage draw(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setPaint(new GradientPaint(0, 0, new Color(70, 130, 180), width, height, new Color(250, 214, 165)));
+            g.fillRect(0, 0, width, height);
+
+            Random random = new Random(width * 31L + height);
+            for (int i = 0; i < 60; i++) {
+                g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 90));
+                int size = width / 20 + random.nextInt(width / 6);
+                g.fillOval(random.nextInt(width), random.nextInt(height), size, size * 2 / 3);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        // sensor grain: keeps the encoder from finding flat blocks everywhere
+        Random grain = new Random(height * 17L + width);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                int noise = grain.nextInt(9) - 4;
+                int r = clamp(((rgb >> 16) & 0xFF) + noise);
+                int gr = clamp(((rgb >> 8) & 0xFF) + noise);
+                int b = clamp((rgb & 0xFF) + noise);
+                image.setRGB(x, y, (r << 16) | (gr << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    private static void write(BufferedImage image, String format, Path file) throws IOException {
+        if (!"jpg".equals(format)) {
+            ImageIO.write(image, format, file.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(0.85f);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
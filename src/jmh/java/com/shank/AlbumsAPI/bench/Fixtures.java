@@ -0,0 +1,88 @@
+package com.shank.AlbumsAPI.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import com.shank.AlbumsAPI.payload.albums.AlbumPageDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoDTO;
+import com.shank.AlbumsAPI.service.AlbumViewService;
+import com.shank.AlbumsAPI.util.apputils.Cursor;
+
+/** Inputs shared by the benchmarks; nothing here touches the network. */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // a committed image (see FixtureImages), copied out so it can be read as a file
+    public static Path image(String name, Path dir) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IllegalArgumentException("No fixture " + name);
+            Path file = dir.resolve(name);
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // incompressible bytes, for originals too large to commit
+    public static Path randomFile(Path dir, String name, long size) {
+        Path file = dir.resolve(name);
+        byte[] chunk = new byte[64 * 1024];
+        Random random = new Random(size);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += chunk.length) {
+                random.nextBytes(chunk);
+                out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // a GET /albums page as it is built and cached
+    public static AlbumPageDTO albumPage(int albums, int photosPerAlbum) {
+        List<AlbumViewDTO> views = new ArrayList<>(albums);
+        for (int a = 1; a <= albums; a++) {
+            List<PhotoDTO> photos = new ArrayList<>(photosPerAlbum);
+            for (int p = 1; p <= photosPerAlbum; p++) {
+                long photoId = a * 1000L + p;
+                photos.add(new PhotoDTO(photoId, "IMG_" + photoId + ".jpg", "Photo " + p + " of album " + a,
+                        AlbumViewService.downloadLink(a, photoId)));
+            }
+            views.add(new AlbumViewDTO(a, "Album " + a, "Holiday pictures, part " + a, photos,
+                    photosPerAlbum > 0 ? Cursor.encode(a * 1000L + photosPerAlbum) : null));
+        }
+        return new AlbumPageDTO(views, Cursor.encode(albums));
+    }
+
+    public static Path tempDir(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void delete(Path dir) {
+        if (dir == null) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            // temp files; the OS cleans up eventually
+        }
+    }
+}
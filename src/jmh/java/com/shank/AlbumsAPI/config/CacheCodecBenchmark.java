@@ -0,0 +1,104 @@
+package com.shank.AlbumsAPI.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shank.AlbumsAPI.bench.Fixtures;
+import com.shank.AlbumsAPI.payload.albums.AlbumPageDTO;
+import com.shank.AlbumsAPI.payload.albums.CachedValueDTO;
+
+/**
+ * An album-list page through each Redis value codec: the JSON one (Jackson
+ * default typing, the format before the binary codec) and the binary one, bare
+ * and behind {@link VersionedRedisSerializer} with its deflate threshold.
+ * {@code response} is the plain JSON the controller writes, for scale.
+ * {@code serialize} also reports the codec's encoded size and the stored
+ * (possibly deflated) size as {@code encodedBytes} and {@code storedBytes}. Run
+ * with {@code -prof gc} for bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheCodecBenchmark {
+
+    @Param({"binary", "json"})
+    String codec;
+
+    @Param({"0", "50"})
+    int photosPerAlbum;
+
+    /** Value sizes in bytes, reported next to the timings rather than as rates. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long encodedBytes;
+        public long storedBytes;
+    }
+
+    private final ObjectMapper responseMapper = new ObjectMapper();
+    private CacheValueCodec valueCodec;
+    private VersionedRedisSerializer serializer;
+    private CachedValueDTO value;
+    private byte[] encoded;
+    private byte[] stored;
+
+    @Setup
+    public void setUp() throws IOException {
+        CacheValueCodec binary = new BinaryCacheValueCodec();
+        CacheValueCodec json = new JsonCacheValueCodec();
+        valueCodec = "binary".equals(codec) ? binary : json;
+        serializer = new VersionedRedisSerializer(valueCodec, json, List.of(binary, json), 1024);
+
+        AlbumPageDTO page = Fixtures.albumPage(20, photosPerAlbum);
+        value = new CachedValueDTO(page, System.currentTimeMillis() + 600_000, 12);
+        encoded = valueCodec.encode(value);
+        stored = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return valueCodec.encode(value);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return valueCodec.decode(ByteBuffer.wrap(encoded));
+    }
+
+    @Benchmark
+    public byte[] serialize(Sizes sizes) {
+        byte[] bytes = serializer.serialize(value);
+        sizes.encodedBytes = encoded.length;
+        sizes.storedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(stored);
+    }
+
+    @Benchmark
+    public byte[] response() throws IOException {
+        return responseMapper.writeValueAsBytes(((AlbumPageDTO) value.getValue()).getAlbums());
+    }
+}
@@ -0,0 +1,100 @@
+package com.shank.AlbumsAPI.security;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.shank.AlbumsAPI.bench.Fixtures;
+import com.shank.AlbumsAPI.service.TokenService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Issuing a token ({@link TokenService} over {@code NimbusJwtEncoder}) and
+ * verifying one, with the decoder set up as in {@code SecurityConfig}: bare
+ * Nimbus, and behind {@link CachingJwtDecoder} once the token is cached (the
+ * common case for a client making many requests with one token).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    @Param({"RS256", "ES256"})
+    String algorithm;
+
+    private Path dir;
+    private TokenService tokenService;
+    private Authentication authentication;
+    private JwtDecoder nimbus;
+    private CachingJwtDecoder cached;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir("bench-keys");
+        SigningKeyStore signingKeys = new SigningKeyStore(dir.toString(), algorithm, 168, 2, true);
+        tokenService = new TokenService(new NimbusJwtEncoder(signingKeys), signingKeys);
+        AccountPrincipal principal = new AccountPrincipal(42, "user@albumix.test", "",
+                List.of(new SimpleGrantedAuthority("SCOPE_USER")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(SigningKeyStore.ALGORITHMS, signingKeys));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {});
+        nimbus = new NimbusJwtDecoder(processor);
+        // no Redis: the revocation lookup on the single miss in setUp fails open
+        cached = new CachingJwtDecoder(nimbus, null, new SimpleMeterRegistry(), 10_000, Clock.systemUTC());
+
+        token = tokenService.generateToken(authentication);
+        cached.decode(token);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public String encode() {
+        return tokenService.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return nimbus.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cached.decode(token);
+    }
+}
@@ -0,0 +1,51 @@
+package com.shank.AlbumsAPI.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * One password check at login, through the encoder from {@link PasswordConfig}:
+ * bcrypt per strength (what {@code security.password.target-ms} calibrates) and
+ * PBKDF2. Each result is the CPU one login costs a password-verify thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmark {
+
+    static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"bcrypt-10", "bcrypt-11", "bcrypt-12", "pbkdf2"})
+    String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        boolean pbkdf2 = "pbkdf2".equals(encoder);
+        int strength = pbkdf2 ? PasswordConfig.MIN_BCRYPT_STRENGTH : Integer.parseInt(encoder.substring(7));
+        passwordEncoder = PasswordConfig.passwordEncoder(pbkdf2 ? "pbkdf2" : "bcrypt", strength, 0);
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
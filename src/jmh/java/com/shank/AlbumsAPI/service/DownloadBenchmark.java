@@ -0,0 +1,190 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.shank.AlbumsAPI.bench.Fixtures;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * Serving a download through {@link FileDownloadService} without a container:
+ * a thumbnail from each {@link ThumbnailStore} (one file per thumbnail, or a
+ * region of a mapped pack segment) and a 10 MB original, whole and as one
+ * range, plus the 304 a revalidating client gets. The body goes to a stream
+ * that drops it, so this is the server's copy cost; sendfile, which only
+ * Tomcat provides, is not exercised.
+ *
+ * <p>The {@code legacy*} benchmarks are the baseline: the controller's former
+ * {@code ResponseEntity<Resource>} answer for the same files, written the way
+ * Spring MVC writes it, through {@link ResourceHttpMessageConverter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DownloadBenchmark {
+
+    static final long ORIGINAL_BYTES = 10L * 1024 * 1024;
+
+    @Param({"file", "pack"})
+    String store;
+
+    private Path dir;
+    private FileDownloadService fileDownloadService;
+    private ThumbnailStore thumbnailStore;
+    private Path thumbnail;
+    private Path original;
+    private Path legacyThumbnail;
+    private String etag;
+    private final ResourceHttpMessageConverter resourceConverter = new ResourceHttpMessageConverter();
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir("bench-download");
+        fileDownloadService = new FileDownloadService(new SimpleMeterRegistry());
+        if ("pack".equals(store)) {
+            PackThumbnailStore pack = new PackThumbnailStore(dir.toString(), 64 * 1024 * 1024, 0.5,
+                    new SimpleMeterRegistry());
+            pack.open();
+            thumbnailStore = pack;
+        } else {
+            thumbnailStore = new FileThumbnailStore();
+        }
+
+        byte[] rendered = Files.readAllBytes(Fixtures.image("small.jpg", dir));
+        thumbnail = dir.resolve(ThumbnailService.THUMBNAIL_FOLDER_NAME).resolve("1").resolve("1.jpg");
+        thumbnailStore.write(thumbnail, rendered);
+        original = Fixtures.randomFile(dir, "original.jpg", ORIGINAL_BYTES);
+        // the baseline always read thumbnails from their own file, whatever the store
+        legacyThumbnail = Files.write(Files.createDirectories(dir.resolve("legacy")).resolve("1.jpg"), rendered);
+
+        MockHttpServletResponse response = new DiscardingResponse();
+        fileDownloadService.write(new MockHttpServletRequest("GET", "/"), response,
+                thumbnailStore.open(thumbnail), "image/jpeg", "1.jpg", FileDownloadService.IMMUTABLE);
+        etag = response.getHeader(HttpHeaders.ETAG);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (thumbnailStore instanceof PackThumbnailStore pack) pack.close();
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public int thumbnail() throws IOException {
+        return download(new MockHttpServletRequest("GET", "/"), thumbnailStore.open(thumbnail));
+    }
+
+    @Benchmark
+    public int thumbnailNotModified() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        return download(request, thumbnailStore.open(thumbnail));
+    }
+
+    // the original does not depend on the thumbnail store; compare it across runs, not params
+    @Benchmark
+    public int original() throws IOException {
+        return download(new MockHttpServletRequest("GET", "/"), FileDownloadService.of(original));
+    }
+
+    @Benchmark
+    public int originalRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=1048576-2097151");
+        return download(request, FileDownloadService.of(original));
+    }
+
+    @Benchmark
+    public int legacyThumbnail() throws IOException {
+        return legacyDownload(legacyThumbnail);
+    }
+
+    @Benchmark
+    public int legacyOriginal() throws IOException {
+        return legacyDownload(original);
+    }
+
+    // as the controller answered before: resource lookup, content type probe, ResponseEntity
+    private int legacyDownload(Path file) throws IOException {
+        Resource resource = new FileSystemResource(file.toFile());
+        if (!resource.exists()) return 404;
+        String contentType = Files.probeContentType(file);
+        if (contentType == null) contentType = "application/octet-stream";
+        ResponseEntity<Resource> entity = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"photo.jpg\"")
+                .body(resource);
+
+        DiscardingResponse response = new DiscardingResponse();
+        ServletServerHttpResponse output = new ServletServerHttpResponse(response);
+        output.setStatusCode(entity.getStatusCode());
+        output.getHeaders().putAll(entity.getHeaders());
+        resourceConverter.write(entity.getBody(), entity.getHeaders().getContentType(), output);
+        output.flush();
+        return response.getStatus();
+    }
+
+    private int download(MockHttpServletRequest request, FileDownloadService.Content content) throws IOException {
+        DiscardingResponse response = new DiscardingResponse();
+        fileDownloadService.write(request, response, content, "image/jpeg", "photo.jpg",
+                FileDownloadService.IMMUTABLE);
+        return response.getStatus();
+    }
+
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream sink = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return sink;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.shank.AlbumsAPI.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.shank.AlbumsAPI.bench.Fixtures;
+import com.shank.AlbumsAPI.service.FileDownloadService.Content;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The whole thumbnail job for one photo as {@link ThumbnailService} runs it:
+ * one subsampled decode, then each rendition resized from the previous one and
+ * encoded. Output bytes are counted and dropped, so disk speed stays out of it.
+ * The decode benchmarks show what subsampling saves over a full decode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThumbnailRenderBenchmark {
+
+    @Param({"small.jpg", "medium.jpg", "large.jpg", "medium.png"})
+    String image;
+
+    private Path dir;
+    private Path source;
+    private String format;
+    private ThumbnailService thumbnailService;
+    private final DiscardingStore store = new DiscardingStore();
+
+    @Setup
+    public void setUp() {
+        dir = Fixtures.tempDir("bench-render");
+        source = Fixtures.image(image, dir);
+        format = image.substring(image.lastIndexOf('.') + 1);
+        // renderNow runs on the calling thread; the executors are never used
+        thumbnailService = new ThumbnailService(store, null, null, new SimpleMeterRegistry(),
+                1, 0, new int[] {150, 300, 1024}, 10_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public BufferedImage decodeFull() throws IOException {
+        return ImageIO.read(source.toFile());
+    }
+
+    @Benchmark
+    public BufferedImage decodeSubsampled() throws IOException {
+        return ThumbnailService.readSubsampled(source, 1024);
+    }
+
+    @Benchmark
+    public long render() {
+        thumbnailService.renderNow(source, format, image, folder -> dir.resolve(folder).resolve(image),
+                dir.resolve("missing"));
+        return store.bytes.get();
+    }
+
+    private static final class DiscardingStore implements ThumbnailStore {
+
+        final AtomicLong bytes = new AtomicLong();
+
+        @Override
+        public void write(Path location, byte[] data) {
+            bytes.addAndGet(data.length);
+        }
+
+        @Override
+        public boolean exists(Path location) {
+            return false;
+        }
+
+        @Override
+        public Content open(Path location) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(Path location) {
+        }
+
+        @Override
+        public void deleteUnder(Path directory) {
+        }
+    }
+}
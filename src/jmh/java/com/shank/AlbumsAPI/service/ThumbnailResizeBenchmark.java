@@ -0,0 +1,66 @@
+package com.shank.AlbumsAPI.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.imgscalr.Scalr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.shank.AlbumsAPI.bench.Fixtures;
+
+/**
+ * One {@code Scalr.resize} of an already decoded image, per {@code Scalr.Method}
+ * and target size. {@code AUTOMATIC}, which production uses, picks one of these
+ * methods from the target size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThumbnailResizeBenchmark {
+
+    @Param({"small.jpg", "medium.jpg", "large.jpg", "medium.png"})
+    String image;
+
+    @Param({"SPEED", "BALANCED", "QUALITY", "ULTRA_QUALITY", "AUTOMATIC"})
+    Scalr.Method method;
+
+    @Param({"150", "1024"})
+    int size;
+
+    private Path dir;
+    private BufferedImage decoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir("bench-resize");
+        decoded = ImageIO.read(Fixtures.image(image, dir).toFile());
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public BufferedImage resize() {
+        return Scalr.resize(decoded, method, Scalr.Mode.AUTOMATIC, size, Scalr.OP_ANTIALIAS);
+    }
+}
@@ -0,0 +1,308 @@
+package com.shank.AlbumsAPI.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shank.AlbumsAPI.loadtest.LoadTestSeeder.SeededAccount;
+import com.shank.AlbumsAPI.loadtest.LoadTestSeeder.SeededAlbum;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoBlobRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.service.RedisStandIn;
+import com.sun.management.ThreadMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end load against the whole stack: Tomcat, security, the album cache
+ * over Lettuce, JPA on H2 and the file stores, on one JVM. {@code loadtest.clients}
+ * closed-loop clients (next request when the last one is answered) each log in
+ * as a seeded account and run the weighted {@code loadtest.mix} until the
+ * warm-up and measured windows have passed. Scale, mix and timing are set in
+ * {@code application-loadtest.properties} or with {@code -Dloadtest.*}.
+ *
+ * <p>Run with {@code mvn -Ploadtest verify}; the report goes to the console and
+ * to {@code loadtest.report}. Absolute numbers depend on the machine, and client
+ * and server share its CPUs; compare runs taken on the same one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@Import(LoadTestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class AlbumsLoadIT {
+
+    static final List<String> OPERATIONS = List.of("token", "albums", "album", "upload", "thumbnail", "photo");
+
+    private static final Path DATA_DIR;
+    private static final RedisStandIn REDIS;
+
+    // lives as long as the JVM (and the cached context that uses it)
+    static {
+        try {
+            DATA_DIR = Paths.get("target", "loadtest").toAbsolutePath();
+            FileSystemUtils.deleteRecursively(DATA_DIR);
+            Files.createDirectories(DATA_DIR);
+            REDIS = new RedisStandIn();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void standIns(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", REDIS::port);
+        registry.add("file.upload-dir", () -> DATA_DIR.resolve("uploads").toString());
+        registry.add("security.jwt.keys.dir", () -> DATA_DIR.resolve("keys").toString());
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${loadtest.accounts}")
+    private int accounts;
+    @Value("${loadtest.albums-per-account}")
+    private int albumsPerAccount;
+    @Value("${loadtest.photos-per-album}")
+    private int photosPerAlbum;
+    @Value("${loadtest.clients}")
+    private int clients;
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+    @Value("${loadtest.duration-seconds}")
+    private int durationSeconds;
+    @Value("${loadtest.mix}")
+    private String mix;
+    @Value("${loadtest.max-error-ratio}")
+    private double maxErrorRatio;
+    @Value("${loadtest.report}")
+    private String reportFile;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private PhotoRepository photoRepository;
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private AllocationFilter allocationFilter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private List<SeededAccount> seeded;
+    private byte[] uploadImage;
+    private String[] weighted;
+
+    @BeforeAll
+    void seed() throws IOException {
+        long started = System.nanoTime();
+        seeded = new LoadTestSeeder(accountRepository, albumRepository, photoRepository, photoBlobRepository,
+                passwordEncoder).seed(accounts, albumsPerAccount, photosPerAlbum);
+        log.info("Seeded {} accounts x {} albums x {} photos in {} ms", accounts, albumsPerAccount, photosPerAlbum,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        uploadImage = LoadTestSeeder.fixture("small.jpg").bytes();
+        weighted = weights(mix);
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        LoadReport report = new LoadReport(OPERATIONS);
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            SeededAccount account = seeded.get(c % seeded.size());
+            pool.execute(() -> run(account, report, measureFrom, end));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+        allocationFilter.reset();
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long redisBefore = REDIS.commands();
+        TimeUnit.NANOSECONDS.sleep(end - System.nanoTime());
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+        long redisCommands = REDIS.commands() - redisBefore;
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("accounts", accounts);
+        settings.put("albumsPerAccount", albumsPerAccount);
+        settings.put("photosPerAlbum", photosPerAlbum);
+        settings.put("clients", clients);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("mix", mix);
+        settings.put("cpus", Runtime.getRuntime().availableProcessors());
+        settings.put("javaVersion", System.getProperty("java.version"));
+
+        LoadReport.Summary summary = report.summarize(settings, seconds, allocationFilter, allocated, redisCommands);
+        log.info(LoadReport.table(summary));
+        LoadReport.write(summary, Paths.get(reportFile));
+
+        for (LoadReport.Row row : summary.operations()) {
+            if (!List.of(weighted).contains(row.operation())) continue;
+            assertTrue(row.requests() > 0, row.operation() + " never completed");
+            assertTrue(row.errors() <= row.requests() * maxErrorRatio,
+                    row.operation() + ": " + row.errors() + " of " + row.requests() + " failed");
+        }
+    }
+
+    // ── one client ───────────────────────────────────────────
+
+    private void run(SeededAccount account, LoadReport report, long measureFrom, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] token = {null};
+        try {
+            token(account, token);
+        } catch (IOException | InterruptedException e) {
+            log.warn("Client for {} could not log in: {}", account.email(), e.toString());
+            return;
+        }
+
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            String operation = weighted[random.nextInt(weighted.length)];
+            int status;
+            try {
+                status = switch (operation) {
+                    case "token" -> token(account, token);
+                    case "albums" -> get(operation, "/api/v2/albums", token[0]);
+                    case "album" -> get(operation, "/api/v2/albums/" + album(account, random).id(), token[0]);
+                    case "upload" -> upload(album(account, random), token[0]);
+                    case "thumbnail" -> get(operation, photoUrl(account, random) + "/download-thumbnail", token[0]);
+                    case "photo" -> get(operation, photoUrl(account, random) + "/download-photo", token[0]);
+                    default -> throw new IllegalArgumentException("Unknown operation " + operation);
+                };
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (now >= measureFrom) {
+                report.record(operation, System.nanoTime() - now, status >= 200 && status < 400);
+            }
+        }
+    }
+
+    private int token(SeededAccount account, String[] token) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", account.email(), "password",
+                LoadTestSeeder.PASSWORD));
+        HttpResponse<String> response = http.send(request("token", "/api/v2/auth/token", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) token[0] = objectMapper.readTree(response.body()).path("token").asText();
+        else if (token[0] == null) throw new IOException("Login failed with " + response.statusCode());
+        return response.statusCode();
+    }
+
+    private int get(String operation, String path, String token) throws IOException, InterruptedException {
+        return http.send(request(operation, path, token).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    // a new photo each time (random bytes after the JPEG end marker), so the
+    // upload stores a blob and renders its thumbnails instead of deduplicating
+    private int upload(SeededAlbum album, String token) throws IOException, InterruptedException {
+        String boundary = UUID.randomUUID().toString();
+        byte[] trailer = new byte[16];
+        ThreadLocalRandom.current().nextBytes(trailer);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(uploadImage.length + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"files\"; filename=\"load.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(uploadImage);
+        body.writeBytes(trailer);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        return http.send(request("upload", "/api/v2/albums/" + album.id() + "/upload-photos", token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String operation, String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header(AllocationFilter.OPERATION_HEADER, operation);
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+
+    private static SeededAlbum album(SeededAccount account, ThreadLocalRandom random) {
+        return account.albums().get(random.nextInt(account.albums().size()));
+    }
+
+    private static String photoUrl(SeededAccount account, ThreadLocalRandom random) {
+        SeededAlbum album = album(account, random);
+        long photoId = album.photoIds()[random.nextInt(album.photoIds().length)];
+        return "/api/v2/albums/" + album.id() + "/photos/" + photoId;
+    }
+
+    // "token=2,albums=40" -> an array holding each operation as often as its weight
+    static String[] weights(String mix) {
+        List<String> weighted = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (!OPERATIONS.contains(pair[0])) throw new IllegalArgumentException("Unknown operation " + pair[0]);
+            for (int i = Integer.parseInt(pair[1]); i > 0; i--) weighted.add(pair[0]);
+        }
+        if (weighted.isEmpty()) throw new IllegalArgumentException("loadtest.mix is empty");
+        return weighted.toArray(String[]::new);
+    }
+}
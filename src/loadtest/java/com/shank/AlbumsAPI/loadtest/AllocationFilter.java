@@ -0,0 +1,68 @@
+package com.shank.AlbumsAPI.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.sun.management.ThreadMXBean;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bytes allocated by the servlet thread while it handles a request, summed per
+ * load-test operation (the {@link #OPERATION_HEADER} the client sends). Async
+ * endpoints are counted on both dispatches; work they hand to another pool
+ * (password verification behind the token endpoint) is not on the request
+ * thread and is not counted here.
+ */
+class AllocationFilter extends OncePerRequestFilter {
+
+    static final String OPERATION_HEADER = "X-Load-Operation";
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Map<String, LongAdder> bytes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String operation = request.getHeader(OPERATION_HEADER);
+        if (operation == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bytes.computeIfAbsent(operation, o -> new LongAdder())
+                    .add(THREADS.getCurrentThreadAllocatedBytes() - before);
+            if (!isAsyncDispatch(request)) requests.computeIfAbsent(operation, o -> new LongAdder()).increment();
+        }
+    }
+
+    // average bytes per request of the operation since the last reset
+    long bytesPerRequest(String operation) {
+        LongAdder count = requests.get(operation);
+        LongAdder total = bytes.get(operation);
+        return count == null || total == null || count.sum() == 0 ? 0 : total.sum() / count.sum();
+    }
+
+    void reset() {
+        bytes.clear();
+        requests.clear();
+    }
+}
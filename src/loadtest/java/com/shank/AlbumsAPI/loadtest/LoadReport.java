@@ -0,0 +1,119 @@
+package com.shank.AlbumsAPI.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Client-side latency per operation (request sent to body fully read) over the
+ * measured window, joined with the server-side allocation from
+ * {@link AllocationFilter}. Printed as a table and written as JSON, one run per
+ * file, so runs can be diffed against a stored baseline.
+ */
+class LoadReport {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    record Row(String operation, long requests, long errors, double throughput,
+               double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs,
+               long allocatedBytesPerRequest, double allocatedMbPerSecond) {
+    }
+
+    record Summary(Map<String, Object> settings, double seconds, long requests, long errors, double throughput,
+                   double jvmAllocatedMbPerSecond, long redisCommands, List<Row> operations) {
+    }
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+    private final Map<String, Counter> errors = new LinkedHashMap<>();
+
+    LoadReport(List<String> operations) {
+        for (String operation : operations) {
+            timers.put(operation, Timer.builder("loadtest.request")
+                    .tag("operation", operation)
+                    .publishPercentiles(PERCENTILES)
+                    .percentilePrecision(2)
+                    // one window for the whole run; nothing decays mid-measurement
+                    .distributionStatisticExpiry(Duration.ofDays(1))
+                    .distributionStatisticBufferLength(1)
+                    .register(registry));
+            errors.put(operation, registry.counter("loadtest.errors", "operation", operation));
+        }
+    }
+
+    void record(String operation, long nanos, boolean ok) {
+        timers.get(operation).record(nanos, TimeUnit.NANOSECONDS);
+        if (!ok) errors.get(operation).increment();
+    }
+
+    Summary summarize(Map<String, Object> settings, double seconds, AllocationFilter allocations,
+                      long jvmAllocatedBytes, long redisCommands) {
+        List<Row> rows = new ArrayList<>();
+        long requests = 0;
+        long failed = 0;
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            String operation = entry.getKey();
+            Timer timer = entry.getValue();
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            double[] ms = new double[PERCENTILES.length];
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    if (value.percentile() == PERCENTILES[i]) ms[i] = value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            long count = timer.count();
+            long errorCount = (long) errors.get(operation).count();
+            double throughput = count / seconds;
+            long perRequest = allocations.bytesPerRequest(operation);
+            rows.add(new Row(operation, count, errorCount, round(throughput),
+                    round(ms[0]), round(ms[1]), round(ms[2]), round(ms[3]), round(timer.max(TimeUnit.MILLISECONDS)),
+                    perRequest, round(perRequest * throughput / (1024 * 1024))));
+            requests += count;
+            failed += errorCount;
+        }
+        return new Summary(settings, round(seconds), requests, failed, round(requests / seconds),
+                round(jvmAllocatedBytes / seconds / (1024 * 1024)), redisCommands, rows);
+    }
+
+    static String table(Summary summary) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%n%-10s %9s %7s %9s %9s %9s %9s %9s %9s %11s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "alloc B/req", "alloc MB/s"));
+        for (Row row : summary.operations()) {
+            out.append(String.format("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11d %9.1f%n",
+                    row.operation(), row.requests(), row.errors(), row.throughput(), row.p50Ms(), row.p90Ms(),
+                    row.p99Ms(), row.p999Ms(), row.maxMs(), row.allocatedBytesPerRequest(),
+                    row.allocatedMbPerSecond()));
+        }
+        out.append(String.format("%-10s %9d %7d %9.1f   over %.0f s; JVM (server and clients) allocated %.1f MB/s%n",
+                "total", summary.requests(), summary.errors(), summary.throughput(), summary.seconds(),
+                summary.jvmAllocatedMbPerSecond()));
+        return out.toString();
+    }
+
+    static void write(Summary summary, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
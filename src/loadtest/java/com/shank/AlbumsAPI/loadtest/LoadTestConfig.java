@@ -0,0 +1,33 @@
+package com.shank.AlbumsAPI.loadtest;
+
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+
+@TestConfiguration(proxyBeanMethods = false)
+class LoadTestConfig {
+
+    @Bean
+    AllocationFilter allocationFilter() {
+        return new AllocationFilter();
+    }
+
+    // outermost, so the whole filter chain is counted
+    @Bean
+    FilterRegistrationBean<AllocationFilter> allocationFilterRegistration(AllocationFilter allocationFilter) {
+        FilterRegistrationBean<AllocationFilter> registration = new FilterRegistrationBean<>(allocationFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // the stand-in speaks RESP2 only; skip Lettuce's HELLO probe
+    @Bean
+    LettuceClientConfigurationBuilderCustomizer resp2() {
+        return builder -> builder.clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build());
+    }
+}
@@ -0,0 +1,171 @@
+package com.shank.AlbumsAPI.loadtest;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.model.PhotoBlob;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoBlobRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.service.PhotoStorageService;
+import com.shank.AlbumsAPI.service.PhotoUploadService;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import com.shank.AlbumsAPI.util.constants.Authority;
+
+/**
+ * Seeds accounts, albums and photos through the repositories, as uploads would
+ * leave them: photos point at content-addressed blobs, here a few fixture
+ * images shared by every photo (so the data set costs rows, not disk).
+ * Thumbnails are not pre-rendered; the first downloads render them on demand.
+ */
+class LoadTestSeeder {
+
+    static final String PASSWORD = "load-pass-987";
+
+    private static final String[] FIXTURES = {"small.jpg", "medium.jpg", "medium.png"};
+    private static final int BATCH = 1000;
+
+    record Fixture(String name, String hash, String contentType, byte[] bytes, int width, int height) {
+    }
+
+    record SeededAlbum(long id, long[] photoIds) {
+    }
+
+    record SeededAccount(String email, List<SeededAlbum> albums) {
+    }
+
+    private final AccountRepository accountRepository;
+    private final AlbumRepository albumRepository;
+    private final PhotoRepository photoRepository;
+    private final PhotoBlobRepository photoBlobRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    LoadTestSeeder(AccountRepository accountRepository, AlbumRepository albumRepository,
+                   PhotoRepository photoRepository, PhotoBlobRepository photoBlobRepository,
+                   PasswordEncoder passwordEncoder) {
+        this.accountRepository = accountRepository;
+        this.albumRepository = albumRepository;
+        this.photoRepository = photoRepository;
+        this.photoBlobRepository = photoBlobRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    static Fixture fixture(String name) throws IOException {
+        byte[] bytes;
+        try (InputStream in = LoadTestSeeder.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IOException("Missing fixture " + name);
+            bytes = in.readAllBytes();
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        String contentType = name.endsWith(".png") ? "image/png" : "image/jpeg";
+        Path staged = Files.createTempFile("fixture", null);
+        try {
+            Files.write(staged, bytes);
+            return new Fixture(name, PhotoUploadService.hash(staged), contentType, bytes,
+                    image.getWidth(), image.getHeight());
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    List<SeededAccount> seed(int accounts, int albumsPerAccount, int photosPerAlbum) throws IOException {
+        List<Fixture> fixtures = new ArrayList<>();
+        for (String name : FIXTURES) {
+            Fixture fixture = fixture(name);
+            Files.write(AppUtil.get_blob_upload_path(fixture.hash(), PhotoStorageService.PHOTOS_FOLDER_NAME),
+                    fixture.bytes());
+            fixtures.add(fixture);
+        }
+
+        // one hash for everyone: seeding should not pay a bcrypt round per account
+        String password = passwordEncoder.encode(PASSWORD);
+        List<Account> accountRows = new ArrayList<>();
+        for (int a = 0; a < accounts; a++) {
+            Account account = new Account();
+            account.setEmail("load-" + a + "@albumix.test");
+            account.setPassword(password);
+            account.setAuthorities(Authority.USER.toString());
+            accountRows.add(account);
+        }
+        accountRepository.saveAll(accountRows);
+
+        List<Album> albumRows = new ArrayList<>();
+        for (Account account : accountRows) {
+            for (int n = 0; n < albumsPerAccount; n++) {
+                Album album = new Album();
+                album.setName("Album " + n);
+                album.setDescription("Seeded for the load test");
+                album.setAccount(account);
+                albumRows.add(album);
+            }
+        }
+        albumRepository.saveAll(albumRows);
+
+        Map<String, Long> references = new HashMap<>();
+        List<Photo> photoRows = new ArrayList<>(albumRows.size() * photosPerAlbum);
+        for (Album album : albumRows) {
+            for (int p = 0; p < photosPerAlbum; p++) {
+                Fixture fixture = fixtures.get(photoRows.size() % fixtures.size());
+                photoRows.add(photo(album, p, fixture));
+                references.merge(fixture.hash(), 1L, Long::sum);
+            }
+        }
+        // one transaction per batch keeps the persistence context small
+        for (int from = 0; from < photoRows.size(); from += BATCH) {
+            photoRepository.saveAll(photoRows.subList(from, Math.min(from + BATCH, photoRows.size())));
+        }
+
+        List<PhotoBlob> blobs = new ArrayList<>();
+        for (Fixture fixture : fixtures) {
+            blobs.add(new PhotoBlob(fixture.hash(), references.getOrDefault(fixture.hash(), 0L),
+                    fixture.bytes().length));
+        }
+        photoBlobRepository.saveAll(blobs);
+
+        List<SeededAccount> seeded = new ArrayList<>();
+        for (int a = 0; a < accounts; a++) {
+            List<SeededAlbum> albums = new ArrayList<>();
+            for (int n = 0; n < albumsPerAccount; n++) {
+                int index = a * albumsPerAccount + n;
+                long[] photoIds = new long[photosPerAlbum];
+                for (int p = 0; p < photosPerAlbum; p++) {
+                    photoIds[p] = photoRows.get(index * photosPerAlbum + p).getId();
+                }
+                albums.add(new SeededAlbum(albumRows.get(index).getId(), photoIds));
+            }
+            seeded.add(new SeededAccount(accountRows.get(a).getEmail(), albums));
+        }
+        return seeded;
+    }
+
+    private static Photo photo(Album album, int index, Fixture fixture) {
+        Photo photo = new Photo();
+        photo.setName("Photo " + index);
+        photo.setDescription("");
+        photo.setOriginalFileName(fixture.name());
+        photo.setFileName(index + "-" + fixture.name());
+        photo.setContentType(fixture.contentType());
+        photo.setByteSize((long) fixture.bytes().length);
+        photo.setWidth(fixture.width());
+        photo.setHeight(fixture.height());
+        photo.setContentHash(fixture.hash());
+        photo.setAlbum(album);
+        return photo;
+    }
+}
@@ -8,8 +8,10 @@ import io.swagger.v3.oas.annotations.security.SecurityScheme;
 
 
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableAsync
+@EnableScheduling
 
 @SpringBootApplication
 @SecurityScheme(name = "demo-api", scheme = "bearer", type = SecuritySchemeType.HTTP, in = SecuritySchemeIn.HEADER)
@@ -0,0 +1,34 @@
+package com.shank.AlbumsAPI.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for background album cache refreshes. A refresh that does not fit is
+ * dropped: the cached value is still served and a later read asks again.
+ */
+@Configuration
+public class AlbumCacheExecutorConfig {
+
+    @Value("${albums.cache.refresh.parallelism:2}")
+    private int parallelism;
+
+    @Value("${albums.cache.refresh.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor albumCacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("album-cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
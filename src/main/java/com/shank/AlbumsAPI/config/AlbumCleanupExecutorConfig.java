@@ -0,0 +1,35 @@
+package com.shank.AlbumsAPI.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for deleted-album file cleanup. Jobs are durable rows, so a full
+ * queue simply rejects the hand-off and the poller picks the row up later.
+ */
+@Configuration
+public class AlbumCleanupExecutorConfig {
+
+    @Value("${albums.cleanup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${albums.cleanup.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor albumCleanupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("album-cleanup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // unfinished rows are resumed after restart, so there is nothing to drain
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
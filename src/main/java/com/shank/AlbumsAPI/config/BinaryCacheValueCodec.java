@@ -0,0 +1,230 @@
+package com.shank.AlbumsAPI.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.shank.AlbumsAPI.payload.albums.AlbumIndexDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumPageDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.payload.albums.CachedValueDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoDTO;
+
+/**
+ * Compact encoding of the album cache values: a type tag, then the fields in a
+ * fixed order with varint numbers and lengths. No field or class names are
+ * stored. Nullable strings and lists are written as length + 1, so 0 means null.
+ */
+public class BinaryCacheValueCodec implements CacheValueCodec {
+
+    public static final byte ID = 1;
+
+    private static final int ALBUM_PAGE = 1;
+    private static final int ALBUM_VIEW = 2;
+    // freshness + an untagged page; still read, no longer written
+    private static final int CACHED_ALBUM_PAGE = 3;
+    private static final int ALBUM_INDEX = 4;
+    // freshness + a tagged value
+    private static final int CACHED_VALUE = 5;
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        if (value instanceof CachedValueDTO cached) return supports(cached.getValue());
+        return value instanceof AlbumPageDTO || value instanceof AlbumViewDTO || value instanceof AlbumIndexDTO;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        Writer out = new Writer();
+        write(out, value);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decode(ByteBuffer body) throws IOException {
+        try {
+            return read(body);
+        } catch (RuntimeException e) {
+            // truncated or corrupt body
+            throw new IOException("Malformed cache value", e);
+        }
+    }
+
+    private static void write(Writer out, Object value) {
+        if (value instanceof AlbumPageDTO page) {
+            out.varlong(ALBUM_PAGE);
+            writePage(out, page);
+        } else if (value instanceof AlbumViewDTO album) {
+            out.varlong(ALBUM_VIEW);
+            writeAlbum(out, album);
+        } else if (value instanceof AlbumIndexDTO index) {
+            out.varlong(ALBUM_INDEX);
+            writeIndex(out, index);
+        } else if (value instanceof CachedValueDTO cached) {
+            out.varlong(CACHED_VALUE);
+            out.varlong(cached.getFreshUntil());
+            out.varlong(cached.getRebuildMillis());
+            write(out, cached.getValue());
+        } else {
+            throw new IllegalArgumentException("Unsupported cache value: " + value.getClass().getName());
+        }
+    }
+
+    private static Object read(ByteBuffer in) {
+        int tag = (int) readVarlong(in);
+        return switch (tag) {
+            case ALBUM_PAGE -> readPage(in);
+            case ALBUM_VIEW -> readAlbum(in);
+            case CACHED_ALBUM_PAGE -> readCached(in, true);
+            case ALBUM_INDEX -> readIndex(in);
+            case CACHED_VALUE -> readCached(in, false);
+            default -> throw new IllegalStateException("Unknown cache value tag " + tag);
+        };
+    }
+
+    private static void writePage(Writer out, AlbumPageDTO page) {
+        List<AlbumViewDTO> albums = page.getAlbums();
+        out.size(albums);
+        if (albums != null) {
+            for (AlbumViewDTO album : albums) writeAlbum(out, album);
+        }
+        out.string(page.getNextCursor());
+    }
+
+    private static void writeAlbum(Writer out, AlbumViewDTO album) {
+        out.varlong(album.getId());
+        out.string(album.getName());
+        out.string(album.getDescription());
+        List<PhotoDTO> photos = album.getPhotos();
+        out.size(photos);
+        if (photos != null) {
+            for (PhotoDTO photo : photos) {
+                out.varlong(photo.getId());
+                out.string(photo.getName());
+                out.string(photo.getDescription());
+                out.string(photo.getDownload_link());
+            }
+        }
+        out.string(album.getPhotosCursor());
+    }
+
+    private static AlbumPageDTO readPage(ByteBuffer in) {
+        int size = readSize(in);
+        List<AlbumViewDTO> albums = null;
+        if (size >= 0) {
+            albums = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) albums.add(readAlbum(in));
+        }
+        return new AlbumPageDTO(albums, readString(in));
+    }
+
+    private static CachedValueDTO readCached(ByteBuffer in, boolean untaggedPage) {
+        long freshUntil = readVarlong(in);
+        long rebuildMillis = readVarlong(in);
+        return new CachedValueDTO(untaggedPage ? readPage(in) : read(in), freshUntil, rebuildMillis);
+    }
+
+    // ascending ids as zigzag deltas, so a sorted index takes a byte or two per id
+    private static void writeIndex(Writer out, AlbumIndexDTO index) {
+        List<Long> ids = index.getAlbumIds();
+        out.size(ids);
+        if (ids == null) return;
+        long previous = 0;
+        for (long id : ids) {
+            long delta = id - previous;
+            out.varlong((delta << 1) ^ (delta >> 63));
+            previous = id;
+        }
+    }
+
+    private static AlbumIndexDTO readIndex(ByteBuffer in) {
+        int size = readSize(in);
+        if (size < 0) return new AlbumIndexDTO(null);
+        List<Long> ids = new ArrayList<>(size);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long zigzag = readVarlong(in);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            ids.add(previous);
+        }
+        return new AlbumIndexDTO(ids);
+    }
+
+    private static AlbumViewDTO readAlbum(ByteBuffer in) {
+        long id = readVarlong(in);
+        String name = readString(in);
+        String description = readString(in);
+        int size = readSize(in);
+        List<PhotoDTO> photos = null;
+        if (size >= 0) {
+            photos = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                photos.add(new PhotoDTO(readVarlong(in), readString(in), readString(in), readString(in)));
+            }
+        }
+        return new AlbumViewDTO(id, name, description, photos, readString(in));
+    }
+
+    // -1 for null
+    private static int readSize(ByteBuffer in) {
+        long size = readVarlong(in) - 1;
+        // every element takes at least one byte, so a larger size is corrupt
+        if (size > in.remaining()) throw new IllegalStateException("Size " + size + " exceeds the value");
+        return (int) size;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readSize(in);
+        if (length < 0) return null;
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static long readVarlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Varint too long");
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(256);
+        }
+
+        void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void size(List<?> list) {
+            varlong(list == null ? 0 : list.size() + 1L);
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varlong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varlong(bytes.length + 1L);
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
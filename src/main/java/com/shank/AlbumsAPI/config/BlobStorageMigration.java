@@ -0,0 +1,126 @@
+package com.shank.AlbumsAPI.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.service.PhotoBlobService;
+import com.shank.AlbumsAPI.service.PhotoService;
+import com.shank.AlbumsAPI.service.PhotoStorageService;
+import com.shank.AlbumsAPI.service.PhotoUploadService;
+import com.shank.AlbumsAPI.service.ThumbnailService;
+import com.shank.AlbumsAPI.service.ThumbnailStore;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-off migration of the per-album layout into content-addressed blobs. Run
+ * once with {@code --storage.migrate-to-blobs=true}. It is idempotent: a photo
+ * is attached to its blob from a copy of its original, in the same transaction
+ * that records its {@code contentHash}, and the per-album files are removed only
+ * after that commits. An interrupted run leaves each photo either untouched, to
+ * be migrated by the next run, or migrated with stray per-album files. Moving
+ * thumbnails is best-effort; a missing blob thumbnail is rendered on first request.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.migrate-to-blobs", havingValue = "true")
+@Slf4j
+public class BlobStorageMigration implements CommandLineRunner {
+
+    private final PhotoService photoService;
+    private final PhotoBlobService photoBlobService;
+    private final ThumbnailService thumbnailService;
+    private final ThumbnailStore thumbnailStore;
+
+    BlobStorageMigration(PhotoService photoService, PhotoBlobService photoBlobService, ThumbnailService thumbnailService,
+                         ThumbnailStore thumbnailStore) {
+        this.photoService = photoService;
+        this.photoBlobService = photoBlobService;
+        this.thumbnailService = thumbnailService;
+        this.thumbnailStore = thumbnailStore;
+    }
+
+    @Override
+    public void run(String... args) {
+        int migrated = 0, duplicates = 0, missing = 0, failed = 0;
+        long bytesBefore = 0, bytesReclaimed = 0;
+
+        for (Photo photo : photoService.findNotContentAddressed()) {
+            long albumId = photo.getAlbum().getId();
+            Path original = AppUtil.get_photo_path(photo.getFileName(), PhotoStorageService.PHOTOS_FOLDER_NAME, albumId);
+            if (!Files.exists(original)) {
+                missing++;
+                continue;
+            }
+            try {
+                String hash = PhotoUploadService.hash(original);
+                long size = Files.size(original);
+                long thumbnailBytes = 0;
+                for (String folder : thumbnailService.getThumbnailFolders()) {
+                    Path thumbnail = AppUtil.get_photo_path(photo.getFileName(), folder, albumId);
+                    if (Files.exists(thumbnail)) thumbnailBytes += Files.size(thumbnail);
+                }
+                bytesBefore += size + thumbnailBytes;
+
+                // a copy, so the original survives until the photo's hash is committed
+                Path staged = AppUtil.get_staging_path();
+                Files.copy(original, staged, StandardCopyOption.REPLACE_EXISTING);
+                boolean created;
+                try {
+                    created = photoBlobService.adopt(photo, hash, staged, size);
+                } finally {
+                    Files.deleteIfExists(staged);
+                }
+
+                migrated++;
+                if (!created) {
+                    duplicates++;
+                    bytesReclaimed += size + thumbnailBytes;
+                }
+                deleteQuietly(original);
+                moveThumbnails(photo, albumId, hash, created);
+            } catch (IOException | RuntimeException e) {
+                failed++;
+                log.error("❌ Failed to migrate photo {}: {}", photo.getId(), e.getMessage());
+            }
+        }
+
+        log.info("Blob migration: {} migrated, {} duplicates, {} missing on disk, {} failed", migrated, duplicates, missing, failed);
+        log.info("Blob migration: {} bytes scanned, {} bytes reclaimed ({}%)", bytesBefore, bytesReclaimed,
+                bytesBefore == 0 ? 0 : bytesReclaimed * 100 / bytesBefore);
+    }
+
+    // the photo is migrated already; anything left behind only costs disk space
+    private void moveThumbnails(Photo photo, long albumId, String hash, boolean created) {
+        for (String folder : thumbnailService.getThumbnailFolders()) {
+            Path thumbnail = AppUtil.get_photo_path(photo.getFileName(), folder, albumId);
+            try {
+                // packed thumbnails are not moved; the blob's are rendered on first request
+                if (!Files.exists(thumbnail)) {
+                    thumbnailStore.delete(thumbnail);
+                    continue;
+                }
+                Path blobThumbnail = AppUtil.get_blob_upload_path(hash, folder);
+                if (created && !Files.exists(blobThumbnail)) Files.move(thumbnail, blobThumbnail);
+                else Files.delete(thumbnail);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Left thumbnail {} of photo {} in place: {}", folder, photo.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Left migrated original {} in place: {}", path, e.getMessage());
+        }
+    }
+}
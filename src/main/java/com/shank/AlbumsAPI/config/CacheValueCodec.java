@@ -0,0 +1,21 @@
+package com.shank.AlbumsAPI.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Body encoding for Redis cache values; {@link VersionedRedisSerializer} adds the
+ * header and compression. The {@link #id()} is stored with every value, so a
+ * codec's layout must never change once written: a new layout gets a new id, and
+ * the old codec stays registered until its values have expired.
+ */
+public interface CacheValueCodec {
+
+    byte id();
+
+    boolean supports(Object value);
+
+    byte[] encode(Object value) throws IOException;
+
+    Object decode(ByteBuffer body) throws IOException;
+}
@@ -1,8 +1,11 @@
 package com.shank.AlbumsAPI.config;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
@@ -19,15 +22,42 @@ public class CloudinaryConfig {
     @Value("${cloudinary.api-secret}")
     private String apiSecret;
 
+    // empty for the real API; tests point this at a local stand-in
+    @Value("${cloudinary.upload-prefix:}")
+    private String uploadPrefix;
+
+    // socket timeout of each remote call, in seconds
+    @Value("${cloudinary.timeout-seconds:60}")
+    private int timeoutSeconds;
+
     @Bean
     public Cloudinary cloudinary() {
-        return new Cloudinary(
+        Cloudinary cloudinary = new Cloudinary(
             ObjectUtils.asMap(
                 "cloud_name", cloudName,
                 "api_key", apiKey,
                 "api_secret", apiSecret,
-                "secure", true
+                "secure", true,
+                "timeout", timeoutSeconds
             )
         );
+        if (!uploadPrefix.isBlank()) cloudinary.config.uploadPrefix = uploadPrefix;
+        return cloudinary;
+    }
+
+    // remote calls run here, never on a request thread; a full queue is rejected (503)
+    @Bean
+    public ThreadPoolTaskExecutor cloudinaryExecutor(
+            @Value("${cloudinary.upload.concurrency:8}") int concurrency,
+            @Value("${cloudinary.upload.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cloudinary-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(timeoutSeconds);
+        return executor;
     }
 }
\ No newline at end of file
@@ -29,6 +29,9 @@ public class CorsConfig {
         // ✅ Headers
         config.setAllowedHeaders(List.of("*"));
 
+        // ✅ Pagination / caching headers readable by the frontend
+        config.setExposedHeaders(List.of("X-Next-Cursor", "ETag"));
+
         // ✅ Allow JWT / cookies
         config.setAllowCredentials(true);
 
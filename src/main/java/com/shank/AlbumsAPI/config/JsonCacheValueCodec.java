@@ -0,0 +1,52 @@
+package com.shank.AlbumsAPI.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+
+/**
+ * JSON with class names embedded (Jackson default typing). Handles any value, so
+ * it is the fallback for types the binary codec does not know, and it reads the
+ * headerless values written before cache values were versioned.
+ */
+public class JsonCacheValueCodec implements CacheValueCodec {
+
+    public static final byte ID = 2;
+
+    private final ObjectMapper mapper;
+
+    public JsonCacheValueCodec() {
+        PolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator
+                .builder()
+                .allowIfSubType(Object.class)
+                .build();
+
+        mapper = new ObjectMapper();
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.activateDefaultTyping(ptv, ObjectMapper.DefaultTyping.NON_FINAL);
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return true;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(ByteBuffer body) throws IOException {
+        return mapper.readValue(body.array(), body.arrayOffset() + body.position(), body.remaining(), Object.class);
+    }
+}
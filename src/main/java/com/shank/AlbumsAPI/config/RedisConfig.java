@@ -1,21 +1,26 @@
 package com.shank.AlbumsAPI.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
-import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.shank.AlbumsAPI.security.CachingJwtDecoder;
+import com.shank.AlbumsAPI.service.AlbumCacheService;
+
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory,
+                                                       @Value("${albums.cache.codec:binary}") String codec,
+                                                       @Value("${albums.cache.compress-threshold-bytes:1024}") int compressThreshold) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
 
@@ -23,22 +28,27 @@ public class RedisConfig {
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
 
-        // Value serializer: Jackson JSON with type info
-        PolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator
-                .builder()
-                .allowIfSubType(Object.class)
-                .build();
-
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
-        mapper.activateDefaultTyping(ptv, ObjectMapper.DefaultTyping.NON_FINAL);
-
-        Jackson2JsonRedisSerializer<Object> jsonSerializer =
-                new Jackson2JsonRedisSerializer<>(mapper, Object.class);
+        // Value serializer: versioned header + binary (or JSON) body, deflated when large
+        CacheValueCodec binary = new BinaryCacheValueCodec();
+        CacheValueCodec json = new JsonCacheValueCodec();
+        VersionedRedisSerializer valueSerializer = new VersionedRedisSerializer(
+                "json".equals(codec) ? json : binary, json, List.of(binary, json), compressThreshold);
 
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
         template.afterPropertiesSet();
         return template;
     }
+
+    // Cross-node L1 invalidation for the album cache, and token revocations
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory,
+                                                                       AlbumCacheService albumCacheService,
+                                                                       CachingJwtDecoder jwtDecoder) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(albumCacheService, new ChannelTopic(AlbumCacheService.INVALIDATION_CHANNEL));
+        container.addMessageListener(jwtDecoder, new ChannelTopic(CachingJwtDecoder.REVOCATION_CHANNEL));
+        return container;
+    }
 }
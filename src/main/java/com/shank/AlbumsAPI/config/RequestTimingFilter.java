@@ -0,0 +1,120 @@
+package com.shank.AlbumsAPI.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Records when a request arrived ({@link #STARTED_AT}), so handlers can meter
+ * time to first byte from the real start of the request rather than from their
+ * own entry.
+ *
+ * <p>With {@code server-timing.enabled=true} it also adds
+ * {@code Server-Timing: app;dur=<ms>}, the time until the body starts, which
+ * browser dev tools show next to the network timings. It is off by default: the
+ * header tells every client how long the server spent on its request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String STARTED_AT = RequestTimingFilter.class.getName() + ".startedAt";
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final boolean serverTiming;
+
+    RequestTimingFilter(@Value("${server-timing.enabled:false}") boolean serverTiming) {
+        this.serverTiming = serverTiming;
+    }
+
+    // System.nanoTime() when the request arrived, or fallback outside a filtered request
+    public static long startedAt(HttpServletRequest request, long fallback) {
+        return request.getAttribute(STARTED_AT) instanceof Long startedAt ? startedAt : fallback;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        request.setAttribute(STARTED_AT, startedAt);
+        if (!serverTiming) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        TimingResponse timed = new TimingResponse(response, startedAt);
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            // bodiless and sendfile responses; async ones are timed when they write
+            if (!request.isAsyncStarted()) timed.addTiming();
+        }
+    }
+
+    // adds the header just before the body starts, while headers can still change
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final long startedAt;
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, long startedAt) {
+            super(response);
+            this.startedAt = startedAt;
+        }
+
+        void addTiming() {
+            if (added || isCommitted()) return;
+            added = true;
+            long micros = (System.nanoTime() - startedAt) / 1000;
+            addHeader(SERVER_TIMING, "app;dur=" + micros / 1000.0);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
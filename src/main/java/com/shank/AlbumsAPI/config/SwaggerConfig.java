@@ -1,7 +1,10 @@
 package com.shank.AlbumsAPI.config;
 
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Configuration;
 
+import com.shank.AlbumsAPI.security.CurrentAccountId;
+
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.*;
 
@@ -21,5 +24,8 @@ import io.swagger.v3.oas.annotations.info.*;
     )
 )
 public class SwaggerConfig {
-    
+
+    static {
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentAccountId.class);
+    }
 }
@@ -0,0 +1,85 @@
+package com.shank.AlbumsAPI.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Executors for thumbnail rendering. Renders run on a fixed pool with a bounded
+ * queue; when the queue is full the submitting (upload) thread renders the job
+ * itself, which throttles uploads instead of dropping thumbnails.
+ *
+ * <p>On shutdown the retry scheduler drains first, handing its pending retries
+ * to the render pool, which then drains in turn. Jobs submitted after the pool
+ * has shut down are rejected rather than silently discarded, so their submitters
+ * can fail them.
+ */
+@Configuration
+public class ThumbnailExecutorConfig {
+
+    @Value("${thumbnail.executor.parallelism:0}")
+    private int parallelism;
+
+    @Value("${thumbnail.executor.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${thumbnail.executor.shutdown-timeout-seconds:30}")
+    private int shutdownTimeoutSeconds;
+
+    @Bean
+    public ThreadPoolTaskExecutor thumbnailExecutor(MeterRegistry meterRegistry) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        Counter callerRuns = meterRegistry.counter("thumbnail.queue.full");
+        Counter dropped = meterRegistry.counter("thumbnail.dropped");
+        RejectedExecutionHandler overflow = new ThreadPoolExecutor.CallerRunsPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            if (pool.isShutdown()) {
+                // CallerRunsPolicy would discard it without a trace
+                dropped.increment();
+                throw new RejectedExecutionException("Thumbnail executor has shut down");
+            }
+            callerRuns.increment();
+            overflow.rejectedExecution(task, pool);
+        });
+        // drain pending renders on shutdown
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(shutdownTimeoutSeconds);
+
+        Gauge.builder("thumbnail.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("thumbnail.inflight", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // delays retries without holding a render thread; destroyed before the render pool
+    @Bean
+    @DependsOn("thumbnailExecutor")
+    public ThreadPoolTaskScheduler thumbnailRetryScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("thumbnail-retry-");
+        // pending retries still run, into the render pool that is yet to drain
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(shutdownTimeoutSeconds);
+        return scheduler;
+    }
+}
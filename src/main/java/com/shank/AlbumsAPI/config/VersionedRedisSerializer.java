@@ -0,0 +1,149 @@
+package com.shank.AlbumsAPI.config;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis value serializer that prefixes every value with a 4-byte header:
+ * magic, format version, codec id, flags. Bodies of at least
+ * {@code compressThreshold} bytes are deflated (flag {@link #FLAG_DEFLATE}),
+ * with the plain length stored ahead of them.
+ *
+ * <p>Values go through the preferred codec when it supports the type, otherwise
+ * through the fallback. Every registered codec can be read back, whichever one is
+ * preferred, and so can headerless values from before the header existed (they
+ * are plain JSON). A value this node cannot read (a newer version or an unknown
+ * codec) is returned as null, so callers treat it as a miss and overwrite it.
+ */
+@Slf4j
+public class VersionedRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xCA;
+    static final byte FORMAT_VERSION = 1;
+    static final byte FLAG_DEFLATE = 1;
+    static final int HEADER_BYTES = 4;
+    // a corrupt length must not turn into a huge allocation
+    static final int MAX_PLAIN_BYTES = 64 * 1024 * 1024;
+
+    private final CacheValueCodec preferred;
+    private final CacheValueCodec fallback;
+    private final Map<Byte, CacheValueCodec> codecs = new HashMap<>();
+    private final int compressThreshold;
+
+    public VersionedRedisSerializer(CacheValueCodec preferred, CacheValueCodec fallback,
+                                    List<CacheValueCodec> readable, int compressThreshold) {
+        this.preferred = preferred;
+        this.fallback = fallback;
+        this.compressThreshold = compressThreshold;
+        for (CacheValueCodec codec : readable) codecs.put(codec.id(), codec);
+        codecs.put(preferred.id(), preferred);
+        codecs.put(fallback.id(), fallback);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) return new byte[0];
+
+        CacheValueCodec codec = preferred.supports(value) ? preferred : fallback;
+        byte[] body;
+        try {
+            body = codec.encode(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not encode " + value.getClass().getName(), e);
+        }
+
+        byte flags = 0;
+        if (body.length >= compressThreshold) {
+            byte[] deflated = deflate(body);
+            // incompressible bodies (already-small or random data) are kept as they are
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+
+        byte[] out = new byte[HEADER_BYTES + body.length];
+        out[0] = MAGIC;
+        out[1] = FORMAT_VERSION;
+        out[2] = codec.id();
+        out[3] = flags;
+        System.arraycopy(body, 0, out, HEADER_BYTES, body.length);
+        return out;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        try {
+            if (bytes[0] != MAGIC) {
+                // written before values had a header
+                return codecs.get(JsonCacheValueCodec.ID).decode(ByteBuffer.wrap(bytes));
+            }
+            if (bytes.length < HEADER_BYTES || bytes[1] != FORMAT_VERSION) {
+                log.debug("Skipping cache value with unknown format version");
+                return null;
+            }
+            CacheValueCodec codec = codecs.get(bytes[2]);
+            if (codec == null) {
+                log.debug("Skipping cache value with unknown codec {}", bytes[2]);
+                return null;
+            }
+            ByteBuffer body = ByteBuffer.wrap(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+            if ((bytes[3] & FLAG_DEFLATE) != 0) body = inflate(body);
+            return codec.decode(body);
+        } catch (Exception e) {
+            log.warn("Unreadable cache value, treating it as a miss: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // plain length (4 bytes) + deflate stream
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 16);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(body.length).array());
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer inflate(ByteBuffer body) throws DataFormatException {
+        int length = body.getInt();
+        if (length < 0 || length > MAX_PLAIN_BYTES) throw new DataFormatException("Implausible length " + length);
+        byte[] plain = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body.array(), body.arrayOffset() + body.position(), body.remaining());
+            int read = 0;
+            while (read < length) {
+                int n = inflater.inflate(plain, read, length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                read += n;
+            }
+            if (read != length) throw new DataFormatException("Inflated " + read + " of " + length + " bytes");
+            return ByteBuffer.wrap(plain);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.shank.AlbumsAPI.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.shank.AlbumsAPI.security.CurrentAccountIdArgumentResolver;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CurrentAccountIdArgumentResolver currentAccountIdArgumentResolver;
+
+    WebConfig(CurrentAccountIdArgumentResolver currentAccountIdArgumentResolver) {
+        this.currentAccountIdArgumentResolver = currentAccountIdArgumentResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentAccountIdArgumentResolver);
+    }
+}
@@ -1,32 +1,41 @@
 package com.shank.AlbumsAPI.controller;
 
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.RandomStringUtils;
-import org.springframework.core.io.Resource;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.*;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.shank.AlbumsAPI.model.*;
 import com.shank.AlbumsAPI.payload.albums.*;
+import com.shank.AlbumsAPI.security.CurrentAccountId;
 import com.shank.AlbumsAPI.service.AccountService;
+import com.shank.AlbumsAPI.service.AlbumCleanupService;
+import com.shank.AlbumsAPI.service.AlbumCacheService;
 import com.shank.AlbumsAPI.service.AlbumService;
+import com.shank.AlbumsAPI.service.AlbumViewService;
+import com.shank.AlbumsAPI.service.FileDownloadService;
+import com.shank.AlbumsAPI.service.PhotoBlobService;
 import com.shank.AlbumsAPI.service.PhotoService;
+import com.shank.AlbumsAPI.service.PhotoStorageService;
+import com.shank.AlbumsAPI.service.PhotoUploadService;
+import com.shank.AlbumsAPI.service.PhotoUploadService.BatchItem;
+import com.shank.AlbumsAPI.service.PhotoUploadService.StoredUpload;
 import com.shank.AlbumsAPI.service.ThumbnailService;
-import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import com.shank.AlbumsAPI.util.apputils.Cursor;
 import com.shank.AlbumsAPI.util.constants.AlbumError;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,96 +45,152 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AlbumController {
 
-    static final String PHOTOS_FOLDER_NAME = "photos";
-    static final String THUMBNAIL_FOLDER_NAME = "thumbnails";
-    static final int THUMBNAIL_WIDTH = 300;
+    static final String PHOTOS_FOLDER_NAME = PhotoStorageService.PHOTOS_FOLDER_NAME;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int DEFAULT_PHOTO_PAGE_SIZE = 50;
 
     private final ThumbnailService thumbnailService;
     private final AccountService accountService;
     private final AlbumService albumService;
+    private final AlbumViewService albumViewService;
     private final PhotoService photoService;
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    AlbumController(ThumbnailService thumbnailService, AccountService accountService, AlbumService albumService, PhotoService photoService, RedisTemplate<String, Object> redisTemplate) {
+    private final PhotoUploadService photoUploadService;
+    private final PhotoStorageService photoStorageService;
+    private final PhotoBlobService photoBlobService;
+    private final AlbumCacheService albumCacheService;
+    private final AlbumCleanupService albumCleanupService;
+    private final FileDownloadService fileDownloadService;
+
+    AlbumController(ThumbnailService thumbnailService, AccountService accountService, AlbumService albumService,
+                    AlbumViewService albumViewService, PhotoService photoService, PhotoUploadService photoUploadService,
+                    PhotoStorageService photoStorageService, PhotoBlobService photoBlobService,
+                    AlbumCacheService albumCacheService, AlbumCleanupService albumCleanupService,
+                    FileDownloadService fileDownloadService) {
         this.thumbnailService = thumbnailService;
         this.accountService = accountService;
         this.albumService = albumService;
+        this.albumViewService = albumViewService;
         this.photoService = photoService;
-        this.redisTemplate = redisTemplate;
+        this.photoUploadService = photoUploadService;
+        this.photoStorageService = photoStorageService;
+        this.photoBlobService = photoBlobService;
+        this.albumCacheService = albumCacheService;
+        this.albumCleanupService = albumCleanupService;
+        this.fileDownloadService = fileDownloadService;
     }
 
     // ── helpers ──────────────────────────────────────────────
-    private String albumsCacheKey(long accountId) {
-        return "albums::" + accountId;
+    private static Photo newPhoto(String fileName, StoredUpload upload, Album album) {
+        Photo photo = new Photo();
+        photo.setName(fileName);
+        photo.setFileName(RandomStringUtils.secure().next(10, true, true) + fileName);
+        photo.setOriginalFileName(fileName);
+        photo.setContentType(upload.type().getContentType());
+        photo.setByteSize(upload.byteSize());
+        photo.setWidth(upload.width());
+        photo.setHeight(upload.height());
+        photo.setContentHash(upload.hash());
+        photo.setAlbum(album);
+        return photo;
     }
 
-    private List<AlbumViewDTO> buildAlbumList(long accountId) {
-        List<AlbumViewDTO> albums = new ArrayList<>();
-        for (Album album : albumService.findByAccount_id(accountId)) {
-            List<PhotoDTO> photos = new ArrayList<>();
-            for (Photo photo : photoService.findByAlbumId(album.getId())) {
-                String link = "/albums/" + album.getId() + "/photos/" + photo.getId() + "/download-photo";
-                photos.add(new PhotoDTO(photo.getId(), photo.getName(), photo.getDescription(), link));
+    // batch insert; if the batch fails, rows are retried one by one so one bad row
+    // fails alone. Blob references of rows that could not be saved are released.
+    private boolean[] savePhotos(List<Photo> photos, List<StoredUpload> uploads) {
+        boolean[] saved = new boolean[photos.size()];
+        if (photos.isEmpty()) return saved;
+        try {
+            photoService.saveAll(photos);
+            Arrays.fill(saved, true);
+            return saved;
+        } catch (Exception e) {
+            log.debug("Batch insert failed, saving photos one by one: {}", e.getMessage());
+        }
+        for (int i = 0; i < photos.size(); i++) {
+            try {
+                photos.get(i).setId(0);
+                photoService.save(photos.get(i));
+                saved[i] = true;
+            } catch (Exception e) {
+                log.debug("{}: {}", AlbumError.PHOTO_UPLOAD_ERROR, e.getMessage());
+                photoBlobService.release(uploads.get(i).hash());
             }
-            albums.add(new AlbumViewDTO(album.getId(), album.getName(), album.getDescription(), photos));
         }
-        return albums;
+        return saved;
+    }
+
+    private static int pageSize(Integer limit, int defaultSize) {
+        if (limit == null) return defaultSize;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static long afterId(String cursor) {
+        try {
+            return Cursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
 
-    private void evictAlbumsCache(long accountId) {
-        redisTemplate.delete(albumsCacheKey(accountId));
+    private static <T> ResponseEntity<T> page(T body, String nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) response.header(NEXT_CURSOR_HEADER, nextCursor);
+        return response.body(body);
     }
 
-    // ── GET /albums  (with Redis caching) ────────────────────
+    // ── GET /albums  (keyset pages, with L1 + Redis caching) ──
     @GetMapping(value = "/albums", produces = "application/json")
-    @ApiResponse(responseCode = "200", description = "List of albums")
+    @ApiResponse(responseCode = "200", description = "List of albums; X-Next-Cursor is set when more pages follow")
     @ApiResponse(responseCode = "401", description = "Token missing")
     @ApiResponse(responseCode = "403", description = "Token error")
     @Operation(summary = "List album api")
     @SecurityRequirement(name = "demo-api")
-    @SuppressWarnings("unchecked")
-    public List<AlbumViewDTO> albums(Authentication authentication) {
-        String email = authentication.getName();
-        Account account = accountService.findByEmail(email).orElseThrow();
-        String cacheKey = albumsCacheKey(account.getId());
-
-        // 1. Try Redis cache
-        Object cached = redisTemplate.opsForValue().get(cacheKey);
-        if (cached != null) {
-            log.info("CACHE HIT  — key={}", cacheKey);
-            return (List<AlbumViewDTO>) cached;
-        }
-
-        // 2. Cache miss — hit DB
-        log.info("CACHE MISS — key={}", cacheKey);
-        List<AlbumViewDTO> albums = buildAlbumList(account.getId());
-
-        // 3. Write to Redis (TTL 10 min)
-        redisTemplate.opsForValue().set(cacheKey, albums, 10, TimeUnit.MINUTES);
-        return albums;
+    public ResponseEntity<List<AlbumViewDTO>> albums(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @CurrentAccountId long accountId) {
+        long afterId = afterId(cursor);
+        int pageSize = pageSize(limit, DEFAULT_PAGE_SIZE);
+
+        // the page is cut from the cached id index and filled from per-album entries;
+        // only albums missing from L1 and Redis are read from the DB, in one batch
+        AlbumIndexDTO index = albumCacheService.index(accountId, () -> albumViewService.findAlbumIndex(accountId));
+        List<Long> ids = index.idsAfter(afterId, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) ids = ids.subList(0, pageSize);
+
+        List<AlbumViewDTO> albums = albumCacheService.albums(ids,
+                missing -> albumViewService.findAlbumViews(missing, DEFAULT_PHOTO_PAGE_SIZE));
+        return page(albums, hasMore ? Cursor.encode(ids.get(ids.size() - 1)) : null);
     }
 
-    // ── GET /albums/{id} ─────────────────────────────────────
+    // ── GET /albums/{id}  (keyset pages of photos) ───────────
     @GetMapping(value = "/albums/{album_id}", produces = "application/json")
-    @ApiResponse(responseCode = "200", description = "Album by id")
+    @ApiResponse(responseCode = "200", description = "Album by id; X-Next-Cursor is set when more photos follow")
     @ApiResponse(responseCode = "401", description = "Token missing")
     @ApiResponse(responseCode = "403", description = "Token error")
     @Operation(summary = "List album by album id")
     @SecurityRequirement(name = "demo-api")
-    public ResponseEntity<AlbumViewDTO> albums_by_id(@PathVariable long album_id, Authentication authentication) {
-        String email = authentication.getName();
-        Account account = accountService.findByEmail(email).orElseThrow();
-        Album album = albumService.findById(album_id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
-        if (account.getId() != album.getAccount().getId())
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+    public ResponseEntity<AlbumViewDTO> albums_by_id(@PathVariable long album_id,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @CurrentAccountId long accountId) {
+        long afterId = afterId(cursor);
+        int pageSize = pageSize(limit, DEFAULT_PHOTO_PAGE_SIZE);
+        String cachePage = afterId + ":" + pageSize;
+
+        // pages are cached under the owner's key, so a hit implies ownership
+        AlbumPageDTO cached = albumCacheService.albumPage(accountId, album_id, cachePage, () -> {
+            AlbumRowDTO album = albumViewService.findAlbumRow(album_id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
+            if (accountId != album.getAccountId())
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN);
 
-        List<PhotoDTO> photos = new ArrayList<>();
-        for (Photo photo : photoService.findByAlbumId(album.getId())) {
-            String link = "/albums/" + album.getId() + "/photos/" + photo.getId() + "/download-photo";
-            photos.add(new PhotoDTO(photo.getId(), photo.getName(), photo.getDescription(), link));
-        }
-        return ResponseEntity.ok(new AlbumViewDTO(album.getId(), album.getName(), album.getDescription(), photos));
+            AlbumViewDTO view = albumViewService.findAlbumViewPage(album, afterId, pageSize);
+            return new AlbumPageDTO(List.of(view), view.getPhotosCursor());
+        });
+        return page(cached.getAlbums().get(0), cached.getNextCursor());
     }
 
     // ── POST /albums/add ─────────────────────────────────────
@@ -136,16 +201,14 @@ public class AlbumController {
     @Operation(summary = "Add an album")
     @SecurityRequirement(name = "demo-api")
     public ResponseEntity<AlbumViewDTO> addAlbum(@Valid @RequestBody AlbumPayloadDTO albumPayloadDTO,
-                                                  Authentication authentication) {
+                                                  @CurrentAccountId long accountId) {
         try {
-            String email = authentication.getName();
-            Account account = accountService.findByEmail(email).orElseThrow();
             Album album = new Album();
             album.setName(albumPayloadDTO.getName());
             album.setDescription(albumPayloadDTO.getDescription());
-            album.setAccount(account);
+            album.setAccount(accountService.getReferenceById(accountId));
             album = albumService.save(album);
-            evictAlbumsCache(account.getId());  // invalidate cache on write
+            albumCacheService.evictIndex(accountId);  // invalidate cache on write
             return ResponseEntity.ok(new AlbumViewDTO(album.getId(), album.getName(), album.getDescription(), null));
         } catch (Exception e) {
             log.debug(AlbumError.ADD_ALBUM_ERROR.toString() + ": " + e.getMessage());
@@ -160,25 +223,19 @@ public class AlbumController {
     @SecurityRequirement(name = "demo-api")
     public ResponseEntity<AlbumViewDTO> update_Album(@Valid @RequestBody AlbumPayloadDTO albumPayloadDTO,
                                                       @PathVariable long album_id,
-                                                      Authentication authentication) {
+                                                      @CurrentAccountId long accountId) {
         try {
-            String email = authentication.getName();
-            Account account = accountService.findByEmail(email).orElseThrow();
             Album album = albumService.findById(album_id)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
-            if (account.getId() != album.getAccount().getId())
+            if (accountId != album.getAccount().getId())
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
 
             album.setName(albumPayloadDTO.getName());
             album.setDescription(albumPayloadDTO.getDescription());
             albumService.save(album);
-            evictAlbumsCache(account.getId());
+            albumCacheService.evictAlbum(accountId, album_id);
 
-            List<PhotoDTO> photos = new ArrayList<>();
-            for (Photo photo : photoService.findByAlbumId(album.getId())) {
-                String link = "/albums/" + album.getId() + "/photos/" + photo.getId() + "/download-photo";
-                photos.add(new PhotoDTO(photo.getId(), photo.getName(), photo.getDescription(), link));
-            }
+            List<PhotoDTO> photos = albumViewService.findPhotosByAlbumId(album.getId());
             return ResponseEntity.ok(new AlbumViewDTO(album.getId(), album.getName(), album.getDescription(), photos));
         } catch (Exception e) {
             log.debug(AlbumError.ADD_ALBUM_ERROR.toString() + ": " + e.getMessage());
@@ -194,13 +251,11 @@ public class AlbumController {
     public ResponseEntity<PhotoViewDTO> update_photo(@Valid @RequestBody PhotoPayloadDTO photoPayloadDTO,
                                                       @PathVariable long album_id,
                                                       @PathVariable long photo_id,
-                                                      Authentication authentication) {
+                                                      @CurrentAccountId long accountId) {
         try {
-            String email = authentication.getName();
-            Account account = accountService.findByEmail(email).orElseThrow();
             Album album = albumService.findById(album_id)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
-            if (account.getId() != album.getAccount().getId())
+            if (accountId != album.getAccount().getId())
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
 
             Photo photo = photoService.findById(photo_id)
@@ -211,7 +266,7 @@ public class AlbumController {
             photo.setName(photoPayloadDTO.getName());
             photo.setDescription(photoPayloadDTO.getDescription());
             photoService.save(photo);
-            evictAlbumsCache(account.getId());
+            albumCacheService.evictAlbum(accountId, album_id);
             return ResponseEntity.ok(new PhotoViewDTO(photo.getId(), photoPayloadDTO.getName(), photoPayloadDTO.getDescription()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
@@ -224,13 +279,11 @@ public class AlbumController {
     @Operation(summary = "Delete a photo")
     @SecurityRequirement(name = "demo-api")
     public ResponseEntity<String> delete_photo(@PathVariable long album_id, @PathVariable long photo_id,
-                                                Authentication authentication) {
+                                                @CurrentAccountId long accountId) {
         try {
-            String email = authentication.getName();
-            Account account = accountService.findByEmail(email).orElseThrow();
             Album album = albumService.findById(album_id)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
-            if (account.getId() != album.getAccount().getId())
+            if (accountId != album.getAccount().getId())
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Forbidden");
 
             Photo photo = photoService.findById(photo_id)
@@ -238,10 +291,9 @@ public class AlbumController {
             if (photo.getAlbum().getId() != album_id)
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Forbidden");
 
-            AppUtil.delete_photo_from_path(photo.getFileName(), PHOTOS_FOLDER_NAME, album_id);
-            AppUtil.delete_photo_from_path(photo.getFileName(), THUMBNAIL_FOLDER_NAME, album_id);
             photoService.delete(photo);
-            evictAlbumsCache(account.getId());
+            photoStorageService.delete(photo);
+            albumCacheService.evictAlbum(accountId, album_id);
             return ResponseEntity.status(HttpStatus.ACCEPTED).body("Photo deleted successfully.");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("An error occurred while deleting the photo.");
@@ -250,32 +302,41 @@ public class AlbumController {
 
     // ── DELETE /albums/{id}/delete ────────────────────────────
     @DeleteMapping(value = "/albums/{album_id}/delete")
-    @ApiResponse(responseCode = "202", description = "Album deleted")
+    @ApiResponse(responseCode = "202", description = "Album deleted; files are removed in the background")
     @Operation(summary = "Delete an album")
     @SecurityRequirement(name = "demo-api")
-    public ResponseEntity<String> delete_album(@PathVariable long album_id, Authentication authentication) {
+    public ResponseEntity<String> delete_album(@PathVariable long album_id, @CurrentAccountId long accountId) {
         try {
-            String email = authentication.getName();
-            Account account = accountService.findByEmail(email).orElseThrow();
-            Album album = albumService.findById(album_id)
+            AlbumRowDTO album = albumViewService.findAlbumRow(album_id)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
-            if (account.getId() != album.getAccount().getId())
+            if (accountId != album.getAccountId())
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
 
-            for (Photo photo : photoService.findByAlbumId(album.getId())) {
-                if (photo == null) continue;
-                photoService.delete(photo);
-                AppUtil.delete_photo_from_path(photo.getFileName(), PHOTOS_FOLDER_NAME, album_id);
-                AppUtil.delete_photo_from_path(photo.getFileName(), THUMBNAIL_FOLDER_NAME, album_id);
-            }
-            albumService.deleteAlbum(album);
-            evictAlbumsCache(account.getId());
-            return ResponseEntity.status(HttpStatus.ACCEPTED).body("Album deleted successfully.");
+            AlbumCleanup cleanup = albumCleanupService.deleteAlbum(album_id, accountId);
+            albumCleanupService.submit(cleanup.getId());
+            albumCacheService.evictAlbum(accountId, album_id);
+            albumCacheService.evictIndex(accountId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/v2/albums/" + album_id + "/delete/status"))
+                    .body("Album deleted successfully.");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("An error occurred while deleting the album.");
         }
     }
 
+    // ── GET /albums/{id}/delete/status ────────────────────────
+    @GetMapping(value = "/albums/{album_id}/delete/status", produces = "application/json")
+    @ApiResponse(responseCode = "200", description = "Progress of the album's file cleanup")
+    @ApiResponse(responseCode = "404", description = "No cleanup for this album")
+    @Operation(summary = "Album deletion status")
+    @SecurityRequirement(name = "demo-api")
+    public ResponseEntity<AlbumCleanupDTO> delete_album_status(@PathVariable long album_id,
+                                                               @CurrentAccountId long accountId) {
+        return albumCleanupService.findLatestByAlbumId(album_id, accountId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
     // ── POST /albums/{id}/upload-photos ───────────────────────
     @SuppressWarnings("null")
     @PostMapping(value = "/albums/{album_id}/upload-photos", consumes = {"multipart/form-data"})
@@ -283,45 +344,47 @@ public class AlbumController {
     @SecurityRequirement(name = "demo-api")
     public ResponseEntity<List<HashMap<String, List<?>>>> photos(@RequestPart(required = true) MultipartFile[] files,
                                                                   @PathVariable long album_id,
-                                                                  Authentication authentication) {
-        String email = authentication.getName();
-        Account account = accountService.findByEmail(email).orElseThrow();
+                                                                  @CurrentAccountId long accountId) {
         Album album = albumService.findById(album_id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
-        if (account.getId() != album.getAccount().getId())
+        if (accountId != album.getAccount().getId())
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
 
         List<PhotoViewDTO> fileNamesWithSuccess = new ArrayList<>();
         List<String> fileNamesWithError = new ArrayList<>();
 
-        Arrays.asList(files).forEach(file -> {
-            String contentType = file.getContentType();
-            if ("image/png".equals(contentType) || "image/jpg".equals(contentType) || "image/jpeg".equals(contentType)) {
-                try {
-                    String fileName = file.getOriginalFilename();
-                    String generatedString = RandomStringUtils.secure().next(10, true, true);
-                    String final_photo_name = generatedString + fileName;
-                    String absolute_fileLocation = AppUtil.get_photo_upload_path(final_photo_name, PHOTOS_FOLDER_NAME, album_id);
-                    byte[] fileBytes = file.getBytes();
-                    Files.copy(new java.io.ByteArrayInputStream(fileBytes), Paths.get(absolute_fileLocation), StandardCopyOption.REPLACE_EXISTING);
-
-                    Photo photo = new Photo();
-                    photo.setName(fileName);
-                    photo.setFileName(final_photo_name);
-                    photo.setOriginalFileName(fileName);
-                    photo.setAlbum(album);
-                    photoService.save(photo);
-                    fileNamesWithSuccess.add(new PhotoViewDTO(photo.getId(), photo.getName(), photo.getDescription()));
-                    thumbnailService.generateThumbnail(fileBytes, contentType, final_photo_name, album_id, THUMBNAIL_WIDTH);
-                    evictAlbumsCache(account.getId());
-                } catch (Exception e) {
-                    log.debug(AlbumError.PHOTO_UPLOAD_ERROR.toString() + ": " + e.getMessage());
-                    fileNamesWithError.add(file.getOriginalFilename());
-                }
-            } else {
-                fileNamesWithError.add(file.getOriginalFilename());
+        // files are stored in parallel; rows are then inserted in one batch
+        List<BatchItem> items = photoUploadService.storeAll(files);
+        List<Photo> photos = new ArrayList<>();
+        List<StoredUpload> uploads = new ArrayList<>();
+        for (BatchItem item : items) {
+            if (item.error() != null) {
+                log.debug("{}: {}", AlbumError.PHOTO_UPLOAD_ERROR, item.error().getMessage());
+                continue;
             }
-        });
+            photos.add(newPhoto(item.file().getOriginalFilename(), item.upload(), album));
+            uploads.add(item.upload());
+        }
+
+        boolean[] saved = savePhotos(photos, uploads);
+        // reported in input order, whichever step a file failed at
+        int row = 0;
+        for (BatchItem item : items) {
+            if (item.error() != null) {
+                fileNamesWithError.add(item.file().getOriginalFilename());
+                continue;
+            }
+            int i = row++;
+            Photo photo = photos.get(i);
+            if (!saved[i]) {
+                fileNamesWithError.add(photo.getOriginalFileName());
+                continue;
+            }
+            fileNamesWithSuccess.add(new PhotoViewDTO(photo.getId(), photo.getName(), photo.getDescription()));
+            // identical bytes already stored have their thumbnails too
+            if (uploads.get(i).created()) photoStorageService.generateThumbnails(photo, uploads.get(i).type());
+        }
+        if (!fileNamesWithSuccess.isEmpty()) albumCacheService.evictAlbum(accountId, album_id);
 
         HashMap<String, List<?>> result = new HashMap<>();
         result.put("SUCCESS", fileNamesWithSuccess);
@@ -330,27 +393,32 @@ public class AlbumController {
     }
 
     // ── GET download photo / thumbnail ────────────────────────
+    // Written straight to the response (validators, 304, byte ranges); a null
+    // ResponseEntity tells Spring MVC the response is already handled.
     @GetMapping("/albums/{album_id}/photos/{photo_id}/download-photo")
     @SecurityRequirement(name = "demo-api")
     public ResponseEntity<?> downloadPhoto(@PathVariable long album_id, @PathVariable long photo_id,
-                                            Authentication authentication) {
-        return downloadFile(album_id, photo_id, PHOTOS_FOLDER_NAME, authentication);
+                                            @CurrentAccountId long accountId,
+                                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        return downloadFile(album_id, photo_id, PHOTOS_FOLDER_NAME, FileDownloadService.REVALIDATE, accountId, request, response);
     }
 
     @GetMapping("/albums/{album_id}/photos/{photo_id}/download-thumbnail")
     @SecurityRequirement(name = "demo-api")
     public ResponseEntity<?> downloadThumbnail(@PathVariable long album_id, @PathVariable long photo_id,
-                                                Authentication authentication) {
-        return downloadFile(album_id, photo_id, THUMBNAIL_FOLDER_NAME, authentication);
+                                                @RequestParam(required = false) Integer size,
+                                                @CurrentAccountId long accountId,
+                                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String folder = ThumbnailService.folderFor(thumbnailService.resolveSize(size));
+        return downloadFile(album_id, photo_id, folder, FileDownloadService.IMMUTABLE, accountId, request, response);
     }
 
-    public ResponseEntity<?> downloadFile(long album_id, long photo_id, String folder_name,
-                                           Authentication authentication) {
-        String email = authentication.getName();
-        Account account = accountService.findByEmail(email).orElseThrow();
+    public ResponseEntity<?> downloadFile(long album_id, long photo_id, String folder_name, CacheControl cacheControl,
+                                           long accountId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         Album album = albumService.findById(album_id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
-        if (account.getId() != album.getAccount().getId())
+        if (accountId != album.getAccount().getId())
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
 
         Photo photo = photoService.findById(photo_id)
@@ -358,24 +426,24 @@ public class AlbumController {
         if (photo.getAlbum().getId() != album_id)
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
 
-        Resource resource;
-        try {
-            resource = AppUtil.getFileAsResource(album_id, folder_name, photo.getFileName());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        // thumbnails keep the original's format; legacy rows fall back to the file name
+        String contentType = photo.getContentType();
+        if (contentType == null) {
+            contentType = MediaTypeFactory.getMediaType(photo.getFileName())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                    .toString();
         }
-        if (resource == null || !resource.exists())
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
 
-        String contentType = "application/octet-stream";
+        Path file = photoStorageService.path(photo, folder_name);
+        // not rendered yet: render now, or wait for the render in flight
+        if (!PHOTOS_FOLDER_NAME.equals(folder_name))
+            photoStorageService.ensureThumbnail(photo, file);
         try {
-            contentType = Files.probeContentType(Path.of(resource.getFile().getAbsolutePath()));
-        } catch (IOException ignored) {}
-        if (contentType == null) contentType = "application/octet-stream";
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + photo.getOriginalFileName() + "\"")
-                .body(resource);
+            fileDownloadService.write(request, response, photoStorageService.open(photo, folder_name), contentType,
+                    photo.getOriginalFileName(), cacheControl);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
+        }
+        return null;
     }
 }
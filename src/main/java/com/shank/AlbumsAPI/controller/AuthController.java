@@ -10,6 +10,8 @@ import com.shank.AlbumsAPI.payload.auth.PasswordDTO;
 import com.shank.AlbumsAPI.payload.auth.ProfileDTO;
 import com.shank.AlbumsAPI.payload.auth.TokenDTO;
 import com.shank.AlbumsAPI.payload.auth.UserLoginDTO;
+import com.shank.AlbumsAPI.security.CachingJwtDecoder;
+import com.shank.AlbumsAPI.security.CurrentAccountId;
 import com.shank.AlbumsAPI.service.AccountService;
 import com.shank.AlbumsAPI.service.TokenService;
 import com.shank.AlbumsAPI.util.constants.AccountError;
@@ -25,14 +27,21 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -53,29 +62,55 @@ public class AuthController {
     private TokenService tokenService;
 
     private final AccountService accountService;
+    private final ThreadPoolTaskExecutor passwordVerifyExecutor;
+    private final CachingJwtDecoder jwtDecoder;
 
-    public AuthController(TokenService tokenService, AuthenticationManager authenticationManager, AccountService accountService) {
+    public AuthController(TokenService tokenService, AuthenticationManager authenticationManager, AccountService accountService,
+                          @Qualifier("passwordVerifyExecutor") ThreadPoolTaskExecutor passwordVerifyExecutor,
+                          CachingJwtDecoder jwtDecoder) {
         this.tokenService = tokenService;
         this.authenticationManager = authenticationManager;
         this.accountService = accountService;
+        this.passwordVerifyExecutor = passwordVerifyExecutor;
+        this.jwtDecoder = jwtDecoder;
     }
 
     @PostMapping("/token")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<TokenDTO> token(@Valid @RequestBody UserLoginDTO userLogin) throws AuthenticationException{
+    public CompletableFuture<ResponseEntity<TokenDTO>> token(@Valid @RequestBody UserLoginDTO userLogin) throws AuthenticationException{
 
+        // password hashing is deliberately slow; keep it on its own bounded pool
         try {
-            Authentication authentication = authenticationManager
-                    .authenticate(new UsernamePasswordAuthenticationToken(userLogin.getEmail(), userLogin.getPassword()));
-            return ResponseEntity.ok(new TokenDTO(tokenService.generateToken(authentication)));
-
-        } catch (Exception e) {
-            log.debug(AccountError.TOKEN_GENERATION_ERROR.toString() + ": " + e.getMessage());
-            return new ResponseEntity<>(new TokenDTO(null) , HttpStatus.BAD_REQUEST);
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    Authentication authentication = authenticationManager
+                            .authenticate(new UsernamePasswordAuthenticationToken(userLogin.getEmail(), userLogin.getPassword()));
+                    return ResponseEntity.ok(new TokenDTO(tokenService.generateToken(authentication)));
+
+                } catch (Exception e) {
+                    log.debug(AccountError.TOKEN_GENERATION_ERROR.toString() + ": " + e.getMessage());
+                    return new ResponseEntity<>(new TokenDTO(null) , HttpStatus.BAD_REQUEST);
+                }
+            }, passwordVerifyExecutor);
+
+        } catch (TaskRejectedException e) {
+            log.warn("Login rejected, password verify pool is full");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new TokenDTO(null)));
         }
-        
     }
     
+    @PostMapping("/token/revoke")
+    @ApiResponse(responseCode = "204" , description = "Token revoked")
+    @ApiResponse(responseCode = "401" , description = "Token missing")
+    @Operation(summary = "Revoke the bearer token of this request")
+    @SecurityRequirement(name = "demo-api")
+    public ResponseEntity<Void> revoke_token(@AuthenticationPrincipal Jwt jwt) {
+        jwtDecoder.revoke(jwt);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping(value = "/users/add" , produces = "application/json")
     @ResponseStatus(HttpStatus.CREATED)
     @ApiResponse(responseCode = "401" , description = "Please enter a valid email and password length between 6 to 20 characters")
@@ -137,10 +172,9 @@ public class AuthController {
     @ApiResponse(responseCode = "403" , description = "Token error")
     @Operation(summary = "View profile")
     @SecurityRequirement(name = "demo-api")
-    public ProfileDTO profile(Authentication authentication) {
+    public ProfileDTO profile(@CurrentAccountId long accountId) {
 
-        String email = authentication.getName();
-        Optional<Account> optionalAccount = accountService.findByEmail(email);
+        Optional<Account> optionalAccount = accountService.findByID(accountId);
         Account account = optionalAccount.get();
         ProfileDTO profileDTO = new ProfileDTO(account.getId(), account.getEmail(), account.getAuthorities());
         return profileDTO;
@@ -153,9 +187,8 @@ public class AuthController {
     @ApiResponse(responseCode = "403" , description = "Token error")
     @Operation(summary = "Update password")
     @SecurityRequirement(name = "demo-api")
-    public AccountViewDTO update_password(@Valid @RequestBody PasswordDTO passwordDTO , Authentication authentication) {
-        String email = authentication.getName();
-        Optional<Account> optionalAccount = accountService.findByEmail(email);
+    public AccountViewDTO update_password(@Valid @RequestBody PasswordDTO passwordDTO , @CurrentAccountId long accountId) {
+        Optional<Account> optionalAccount = accountService.findByID(accountId);
         Account account = optionalAccount.get();
         account.setPassword(passwordDTO.getPassword());
         accountService.save(account);
@@ -170,9 +203,8 @@ public class AuthController {
     @ApiResponse(responseCode = "403" , description = "Token error")
     @Operation(summary = "Delete Profile")
     @SecurityRequirement(name = "demo-api")
-    public ResponseEntity<String> delete_profile(Authentication authentication) {
-        String email = authentication.getName();
-        Optional<Account> optionalAccount = accountService.findByEmail(email);
+    public ResponseEntity<String> delete_profile(@CurrentAccountId long accountId) {
+        Optional<Account> optionalAccount = accountService.findByID(accountId);
 
         if(optionalAccount.isPresent()) {
             accountService.deleteByID(optionalAccount.get().getId());
@@ -1,37 +1,52 @@
 package com.shank.AlbumsAPI.controller;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.shank.AlbumsAPI.payload.cloudinary.CloudinaryPageDTO;
+import com.shank.AlbumsAPI.service.CloudinaryIndexService;
+import com.shank.AlbumsAPI.service.CloudinaryService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/v2/cloudinary")
 @SecurityRequirement(name = "demo-api") // 🔐 JWT required in Swagger
+@Slf4j
 public class CloudinaryController {
 
-    private final Cloudinary cloudinary;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
 
-    CloudinaryController(Cloudinary cloudinary) {
-        this.cloudinary = cloudinary;
+    private final CloudinaryService cloudinaryService;
+    private final CloudinaryIndexService cloudinaryIndexService;
+
+    CloudinaryController(CloudinaryService cloudinaryService, CloudinaryIndexService cloudinaryIndexService) {
+        this.cloudinaryService = cloudinaryService;
+        this.cloudinaryIndexService = cloudinaryIndexService;
     }
 
     // ===============================
     // Upload Image
     // ===============================
+    // Returns a future: the request thread is released while Cloudinary works
     @PostMapping(
         value = "/upload",
         consumes = MediaType.MULTIPART_FORM_DATA_VALUE
@@ -40,7 +55,7 @@ public class CloudinaryController {
         summary = "Upload image to Cloudinary",
         description = "Uploads an image file to Cloudinary (JWT protected)"
     )
-    public ResponseEntity<?> uploadImage(
+    public CompletableFuture<ResponseEntity<?>> uploadImage(
             @Parameter(
                 description = "Image file to upload",
                 required = true,
@@ -54,19 +69,13 @@ public class CloudinaryController {
     ) throws IOException {
 
         if (file == null || file.isEmpty()) {
-            return ResponseEntity.badRequest().body("File is empty");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("File is empty"));
         }
 
-        Map<?, ?> uploadResult = cloudinary.uploader().upload(
-                file.getBytes(),
-                ObjectUtils.asMap(
-                        "folder", "albumix_poc",
-                        "resource_type", "image",
-                        "uploaded_by", authentication.getName()
-                )
-        );
-
-        return ResponseEntity.ok(uploadResult);
+        // indexed by the upload itself, so one finishing after the timeout is listed too
+        return cloudinaryService.upload(file, authentication.getName(), cloudinaryIndexService::record)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(CloudinaryController::failure);
     }
 
     // ===============================
@@ -77,34 +86,68 @@ public class CloudinaryController {
         summary = "Delete image from Cloudinary",
         description = "Deletes image using Cloudinary publicId (JWT protected)"
     )
-    public ResponseEntity<?> deleteImage(
+    public CompletableFuture<ResponseEntity<?>> deleteImage(
             @RequestParam("publicId") String publicId,
             Authentication authentication
-    ) throws IOException {
+    ) {
 
         if (publicId == null || publicId.isBlank()) {
-            return ResponseEntity.badRequest().body("publicId is required");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("publicId is required"));
         }
 
-        Map<?, ?> result = cloudinary.uploader().destroy(
-                publicId,
-                ObjectUtils.emptyMap()
-        );
-
-        return ResponseEntity.ok(result);
+        return cloudinaryService.destroy(publicId)
+                .<ResponseEntity<?>>thenApply(result -> {
+                    if ("ok".equals(result.get("result"))) cloudinaryIndexService.remove(publicId);
+                    return ResponseEntity.ok(result);
+                })
+                .exceptionally(CloudinaryController::failure);
     }
 
+    // ===============================
+    // List Images (local index, keyset pages)
+    // ===============================
     @GetMapping("/list")
-    public ResponseEntity<?> listImages() throws Exception {
+    @Operation(
+        summary = "List images uploaded to Cloudinary",
+        description = "Pages through uploaded images; X-Next-Cursor is set when more pages follow"
+    )
+    public CompletableFuture<ResponseEntity<?>> listImages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CompletableFuture<CloudinaryPageDTO> page;
+        try {
+            page = cloudinaryIndexService.list(cursor, pageSize);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Invalid cursor"));
+        }
 
-        Map<?, ?> result = cloudinary.api().resources(
-            ObjectUtils.asMap(
-                "type", "upload",
-                "prefix", "albumix_poc/",
-                "max_results", 50
-            )
-        );
+        return page
+                .<ResponseEntity<?>>thenApply(result -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (result.getNextCursor() != null) response.header(NEXT_CURSOR_HEADER, result.getNextCursor());
+                    return response.body(result.getResources());
+                })
+                .exceptionally(CloudinaryController::failure);
+    }
 
-        return ResponseEntity.ok(result.get("resources"));
+    // ===============================
+    // Remote failures
+    // ===============================
+    private static ResponseEntity<?> failure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Cloudinary did not respond in time");
+        }
+        if (cause instanceof TaskRejectedException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body("Too many Cloudinary requests in flight");
+        }
+        log.error("❌ Cloudinary request failed", cause);
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Cloudinary request failed");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.shank.AlbumsAPI.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.shank.AlbumsAPI.util.constants.CleanupStatus;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Filesystem work left behind by a deleted album. Rows are written in the same
+ * transaction as the delete, so the queue survives restarts; the album and its
+ * photos are already gone by the time a row is picked up.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class AlbumCleanup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private long id;
+
+    private long albumId;
+
+    private long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private CleanupStatus status;
+
+    // blobs the album referenced; swept once their reference count reaches zero
+    @ElementCollection
+    @CollectionTable(name = "album_cleanup_blob", joinColumns = @JoinColumn(name = "cleanup_id"))
+    @Column(name = "hash", length = 64)
+    @ToString.Exclude
+    private List<String> blobHashes = new ArrayList<>();
+
+    // blob sweeps plus the album directory itself
+    private int totalItems;
+
+    private int completedItems;
+
+    private int attempts;
+
+    private String lastError;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public AlbumCleanup(long albumId, long accountId, List<String> blobHashes) {
+        this.albumId = albumId;
+        this.accountId = accountId;
+        this.blobHashes = new ArrayList<>(blobHashes);
+        this.status = CleanupStatus.PENDING;
+        this.totalItems = blobHashes.size() + 1;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.shank.AlbumsAPI.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Local copy of one Cloudinary resource, so listings never call the admin API.
+ * Written by our upload/delete endpoints and reconciled with the remote listing;
+ * {@code syncedAt} is when the row was last confirmed by either.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class CloudinaryAsset implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private long id;
+
+    @Column(unique = true, nullable = false)
+    private String publicId;
+
+    private String format;
+
+    private String resourceType;
+
+    private Long version;
+
+    private Long bytes;
+
+    private Integer width;
+
+    private Integer height;
+
+    private String url;
+
+    private String secureUrl;
+
+    // as reported by Cloudinary (ISO-8601)
+    private String createdAt;
+
+    private Instant syncedAt;
+}
@@ -1,7 +1,9 @@
 package com.shank.AlbumsAPI.model;
 import java.io.Serializable;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -34,7 +36,21 @@ public class Photo implements Serializable {
 
     private String fileName;
 
-    @ManyToOne
+    // recorded at upload; null for photos stored before these columns existed
+    private String contentType;
+
+    private Long byteSize;
+
+    private Integer width;
+
+    private Integer height;
+
+    // sha-256 of the original; null for photos still in the per-album layout
+    @Column(length = 64)
+    private String contentHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
    @JoinColumn(name = "album_id", referencedColumnName = "id", nullable = false)
+    @ToString.Exclude
     private Album album;
 }
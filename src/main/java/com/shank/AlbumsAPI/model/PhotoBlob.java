@@ -0,0 +1,34 @@
+package com.shank.AlbumsAPI.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A stored original, identified by the SHA-256 of its bytes and shared by every
+ * {@link Photo} with that {@code contentHash}.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class PhotoBlob implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private long refCount;
+
+    private long byteSize;
+}
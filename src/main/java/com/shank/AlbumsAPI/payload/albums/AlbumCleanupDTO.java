@@ -0,0 +1,37 @@
+package com.shank.AlbumsAPI.payload.albums;
+
+import java.time.Instant;
+
+import com.shank.AlbumsAPI.util.constants.CleanupStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlbumCleanupDTO {
+
+    private long id;
+
+    private long albumId;
+
+    private CleanupStatus status;
+
+    private int totalItems;
+
+    private int completedItems;
+
+    private int attempts;
+
+    private String lastError;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.shank.AlbumsAPI.payload.albums;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The ids of an account's albums in ascending order, as cached. Album listings are
+ * cut from it and then filled from the per-album cache entries.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlbumIndexDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> albumIds;
+
+    // up to limit ids after afterId
+    public List<Long> idsAfter(long afterId, int limit) {
+        int from = Collections.binarySearch(albumIds, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        return albumIds.subList(from, Math.min(albumIds.size(), from + limit));
+    }
+}
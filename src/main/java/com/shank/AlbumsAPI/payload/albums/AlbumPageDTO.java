@@ -0,0 +1,26 @@
+package com.shank.AlbumsAPI.payload.albums;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One keyset page of albums, as cached. {@code nextCursor} is null on the last page.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlbumPageDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<AlbumViewDTO> albums;
+
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.shank.AlbumsAPI.payload.albums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Flat read-only projection of an album row, used by the listing queries so
+ * that the account graph is never materialised as entities.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlbumRowDTO {
+
+    private long id;
+
+    private long accountId;
+
+    private String name;
+
+    private String description;
+}
@@ -31,4 +31,11 @@ public class AlbumViewDTO implements Serializable {
     private String description;
 
     private List<PhotoDTO> photos;
+
+    // continuation for the album's remaining photos, null when all are listed
+    private String photosCursor;
+
+    public AlbumViewDTO(long id, String name, String description, List<PhotoDTO> photos) {
+        this(id, name, description, photos, null);
+    }
 }
@@ -0,0 +1,29 @@
+package com.shank.AlbumsAPI.payload.albums;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A cached value ({@link AlbumPageDTO} or {@link AlbumIndexDTO}) with the metadata
+ * used to refresh it: the time it stops being fresh (epoch millis) and how long
+ * it took to build.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CachedValueDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Object value;
+
+    private long freshUntil;
+
+    private long rebuildMillis;
+}
@@ -0,0 +1,27 @@
+package com.shank.AlbumsAPI.payload.albums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Flat read-only projection of a photo row, carrying its album id instead of
+ * the {@code Album} entity.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class PhotoRowDTO {
+
+    private long id;
+
+    private long albumId;
+
+    private String name;
+
+    private String description;
+}
@@ -0,0 +1,16 @@
+package com.shank.AlbumsAPI.payload.albums;
+
+/**
+ * Interface projection of a photo row for native queries, which cannot use
+ * constructor expressions like {@link PhotoRowDTO}.
+ */
+public interface PhotoRowView {
+
+    long getId();
+
+    long getAlbumId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -0,0 +1,24 @@
+package com.shank.AlbumsAPI.payload.cloudinary;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One page of the Cloudinary listing. {@code nextCursor} is null on the last page.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CloudinaryPageDTO {
+
+    private List<CloudinaryResourceDTO> resources;
+
+    private String nextCursor;
+}
@@ -0,0 +1,45 @@
+package com.shank.AlbumsAPI.payload.cloudinary;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A listed Cloudinary resource, with the admin API's field names so clients see
+ * the same shape whether it was served from the local index or the remote.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CloudinaryResourceDTO {
+
+    @JsonProperty("public_id")
+    private String publicId;
+
+    private String format;
+
+    @JsonProperty("resource_type")
+    private String resourceType;
+
+    private Long version;
+
+    private Long bytes;
+
+    private Integer width;
+
+    private Integer height;
+
+    private String url;
+
+    @JsonProperty("secure_url")
+    private String secureUrl;
+
+    @JsonProperty("created_at")
+    private String createdAt;
+}
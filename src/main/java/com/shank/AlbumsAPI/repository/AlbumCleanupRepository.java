@@ -0,0 +1,49 @@
+package com.shank.AlbumsAPI.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.AlbumCleanup;
+import com.shank.AlbumsAPI.util.constants.CleanupStatus;
+
+public interface AlbumCleanupRepository extends JpaRepository<AlbumCleanup , Long>{
+
+    Optional<AlbumCleanup> findFirstByAlbumIdOrderByIdDesc(long albumId);
+
+    // pending rows, plus running rows whose worker stopped heartbeating (e.g. a restart)
+    @Query("select c.id from AlbumCleanup c where c.status = com.shank.AlbumsAPI.util.constants.CleanupStatus.PENDING "
+            + "or (c.status = com.shank.AlbumsAPI.util.constants.CleanupStatus.RUNNING and c.updatedAt < :staleBefore) "
+            + "order by c.id")
+    List<Long> findRunnableIds(@Param("staleBefore") Instant staleBefore, Pageable pageable);
+
+    // compare-and-set, so only one worker (on any node) owns a row at a time
+    @Modifying
+    @Transactional
+    @Query("update AlbumCleanup c set c.status = com.shank.AlbumsAPI.util.constants.CleanupStatus.RUNNING, "
+            + "c.attempts = c.attempts + 1, c.completedItems = 0, c.updatedAt = :now where c.id = :id "
+            + "and (c.status = com.shank.AlbumsAPI.util.constants.CleanupStatus.PENDING "
+            + "or (c.status = com.shank.AlbumsAPI.util.constants.CleanupStatus.RUNNING and c.updatedAt < :staleBefore))")
+    int claim(@Param("id") long id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("update AlbumCleanup c set c.completedItems = :completed, c.updatedAt = :now where c.id = :id")
+    int updateProgress(@Param("id") long id, @Param("completed") int completed, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("update AlbumCleanup c set c.status = :status, c.lastError = :error, c.updatedAt = :now where c.id = :id")
+    int finish(@Param("id") long id, @Param("status") CleanupStatus status, @Param("error") String error,
+               @Param("now") Instant now);
+
+    @Query("select h from AlbumCleanup c join c.blobHashes h where c.id = :id")
+    List<String> findBlobHashes(@Param("id") long id);
+}
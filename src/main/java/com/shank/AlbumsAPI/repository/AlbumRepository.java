@@ -1,11 +1,32 @@
 package com.shank.AlbumsAPI.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.payload.albums.AlbumRowDTO;
 
 public interface AlbumRepository extends JpaRepository<Album , Long>{
     List<Album> findByAccount_id(long id);
+
+    @Query("select a.id from Album a where a.account.id = :accountId order by a.id")
+    List<Long> findIdsByAccountId(@Param("accountId") long accountId);
+
+    @Query("select new com.shank.AlbumsAPI.payload.albums.AlbumRowDTO(a.id, a.account.id, a.name, a.description) "
+            + "from Album a where a.id in (:albumIds) order by a.id")
+    List<AlbumRowDTO> findRowsByIds(@Param("albumIds") Collection<Long> albumIds);
+
+    @Query("select new com.shank.AlbumsAPI.payload.albums.AlbumRowDTO(a.id, a.account.id, a.name, a.description) "
+            + "from Album a where a.id = :albumId")
+    Optional<AlbumRowDTO> findRowById(@Param("albumId") long albumId);
+
+    @Modifying
+    @Query("delete from Album a where a.id = :albumId")
+    int deleteByIdInBulk(@Param("albumId") long albumId);
 }
@@ -0,0 +1,34 @@
+package com.shank.AlbumsAPI.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.CloudinaryAsset;
+
+public interface CloudinaryAssetRepository extends JpaRepository<CloudinaryAsset , Long>{
+
+    Optional<CloudinaryAsset> findByPublicId(String publicId);
+
+    // keyset page: assets after afterId, limited by the pageable size
+    @Query("select a from CloudinaryAsset a where a.id > :afterId order by a.id")
+    List<CloudinaryAsset> findPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from CloudinaryAsset a where a.publicId = :publicId")
+    int deleteByPublicIdInBulk(@Param("publicId") String publicId);
+
+    // rows a full reconcile started at syncedBefore did not see
+    @Modifying
+    @Transactional
+    @Query("delete from CloudinaryAsset a where a.syncedAt < :syncedBefore")
+    int deleteNotSyncedSince(@Param("syncedBefore") Instant syncedBefore);
+}
@@ -0,0 +1,28 @@
+package com.shank.AlbumsAPI.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.shank.AlbumsAPI.model.PhotoBlob;
+
+import jakarta.persistence.LockModeType;
+
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob , String>{
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from PhotoBlob b where b.hash = :hash")
+    Optional<PhotoBlob> findForUpdate(@Param("hash") String hash);
+
+    // drops every reference held by an album's photos in one statement; run before the photos are deleted.
+    // Blobs left at zero keep their files until PhotoBlobService.sweep removes them.
+    @Modifying
+    @Query("update PhotoBlob b set b.refCount = b.refCount - "
+            + "(select count(p) from Photo p where p.album.id = :albumId and p.contentHash = b.hash) "
+            + "where b.hash in (select p2.contentHash from Photo p2 where p2.album.id = :albumId)")
+    int releaseAlbumReferences(@Param("albumId") long albumId);
+}
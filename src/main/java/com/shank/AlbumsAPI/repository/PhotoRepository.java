@@ -1,11 +1,46 @@
 package com.shank.AlbumsAPI.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.payload.albums.PhotoRowDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoRowView;
 
 public interface PhotoRepository extends JpaRepository<Photo , Long>{
     List<Photo> findByAlbum_id(long id) ;
+
+    List<Photo> findByContentHashIsNull();
+
+    @Query("select new com.shank.AlbumsAPI.payload.albums.PhotoRowDTO(p.id, p.album.id, p.name, p.description) "
+            + "from Photo p where p.album.id = :albumId order by p.id")
+    List<PhotoRowDTO> findRowsByAlbumId(@Param("albumId") long albumId);
+
+    // keyset page: photos of one album after afterId, limited by the pageable size
+    @Query("select new com.shank.AlbumsAPI.payload.albums.PhotoRowDTO(p.id, p.album.id, p.name, p.description) "
+            + "from Photo p where p.album.id = :albumId and p.id > :afterId order by p.id")
+    List<PhotoRowDTO> findRowsByAlbumIdAfter(@Param("albumId") long albumId, @Param("afterId") long afterId,
+                                             Pageable pageable);
+
+    // first perAlbum photos of each album in one statement (MySQL 8 window function)
+    @Query(value = "select t.id as id, t.album_id as albumId, t.name as name, t.description as description from ("
+            + "select p.id, p.album_id, p.name, p.description, "
+            + "row_number() over (partition by p.album_id order by p.id) as rn "
+            + "from photo p where p.album_id in (:albumIds)) t "
+            + "where t.rn <= :perAlbum order by t.album_id, t.id", nativeQuery = true)
+    List<PhotoRowView> findFirstRowsByAlbumIds(@Param("albumIds") Collection<Long> albumIds,
+                                               @Param("perAlbum") int perAlbum);
+
+    @Query("select distinct p.contentHash from Photo p where p.album.id = :albumId and p.contentHash is not null")
+    List<String> findContentHashesByAlbumId(@Param("albumId") long albumId);
+
+    @Modifying
+    @Query("delete from Photo p where p.album.id = :albumId")
+    int deleteAllByAlbumIdInBulk(@Param("albumId") long albumId);
 }
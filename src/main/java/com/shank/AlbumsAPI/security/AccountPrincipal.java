@@ -0,0 +1,27 @@
+package com.shank.AlbumsAPI.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * {@link User} that also carries the account id, so it can be minted into the
+ * token without another lookup.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class AccountPrincipal extends User {
+    private static final long serialVersionUID = 1L;
+
+    private final long accountId;
+
+    public AccountPrincipal(long accountId, String email, String password,
+                            Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.accountId = accountId;
+    }
+}
@@ -0,0 +1,187 @@
+package com.shank.AlbumsAPI.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches validated {@link Jwt}s in front of the signature-checking decoder, so a
+ * page firing dozens of thumbnail requests with one bearer token verifies it once.
+ * Entries are keyed by a SHA-256 digest of the token (the token itself is never
+ * held as a key) and are served only until the token's {@code exp}.
+ *
+ * <p>{@link #revoke} rejects a token until it expires, on every node: revocations
+ * are broadcast on {@link #REVOCATION_CHANNEL}, like album cache evictions, and
+ * kept in Redis under {@link #REVOKED_PREFIX} until the token's {@code exp}. A
+ * node that missed the broadcast (restarted, or subscribed later) finds them
+ * there on its first cache miss for the token.
+ */
+@Slf4j
+public class CachingJwtDecoder implements JwtDecoder, MessageListener {
+
+    public static final String REVOCATION_CHANNEL = "jwt::revoke";
+    public static final String REVOKED_PREFIX = "jwt::revoked::";
+
+    private final JwtDecoder delegate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final int maxEntries;
+    private final Clock clock;
+
+    private final Map<String, Jwt> verified = new ConcurrentHashMap<>();
+    // digest -> exp; a revoked token needs no entry once it has expired anyway
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    // sender id, so a node can skip its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingJwtDecoder(JwtDecoder delegate, StringRedisTemplate stringRedisTemplate,
+                             MeterRegistry meterRegistry, int maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+
+        this.hits = meterRegistry.counter("jwt.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jwt.cache", "result", "miss");
+        Gauge.builder("jwt.cache.size", verified, Map::size).register(meterRegistry);
+        Gauge.builder("jwt.revoked.size", revoked, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String digest = digest(token);
+        if (revoked.containsKey(digest)) throw new BadJwtException("Token has been revoked");
+
+        Instant now = clock.instant();
+        Jwt cached = verified.get(digest);
+        if (cached != null) {
+            if (isLive(cached, now)) {
+                hits.increment();
+                return cached;
+            }
+            verified.remove(digest, cached);
+        }
+
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        if (isRevokedInRedis(digest)) {
+            revokeLocally(digest, jwt.getExpiresAt() != null ? jwt.getExpiresAt() : Instant.MAX);
+            throw new BadJwtException("Token has been revoked");
+        }
+        // tokens without exp, or accepted only within the validator's clock skew, are not cached
+        if (isLive(jwt, now)) {
+            if (verified.size() >= maxEntries) trim(now);
+            verified.put(digest, jwt);
+        }
+        return jwt;
+    }
+
+    // drops the cached copy only; the next request verifies the token again
+    public void invalidate(String token) {
+        verified.remove(digest(token));
+    }
+
+    public void revoke(Jwt jwt) {
+        String digest = digest(jwt.getTokenValue());
+        Instant expiresAt = jwt.getExpiresAt() != null ? jwt.getExpiresAt() : Instant.MAX;
+        revokeLocally(digest, expiresAt);
+        try {
+            Instant now = clock.instant();
+            if (jwt.getExpiresAt() == null) {
+                stringRedisTemplate.opsForValue().set(REVOKED_PREFIX + digest, "1");
+            } else if (expiresAt.isAfter(now)) {
+                stringRedisTemplate.opsForValue().set(REVOKED_PREFIX + digest, "1", Duration.between(now, expiresAt));
+            }
+        } catch (Exception e) {
+            // nodes that are up still hear the broadcast
+            log.warn("Failed to store token revocation: {}", e.getMessage());
+        }
+        try {
+            stringRedisTemplate.convertAndSend(REVOCATION_CHANNEL, nodeId + "|" + digest + "|" + expiresAt);
+        } catch (Exception e) {
+            // peers still accept the token until it expires
+            log.warn("Failed to publish token revocation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|");
+        if (parts.length != 3 || parts[0].equals(nodeId)) return;
+        try {
+            revokeLocally(parts[1], Instant.parse(parts[2]));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed token revocation: {}", e.getMessage());
+        }
+    }
+
+    // without Redis, the revocations this node has heard of still apply
+    private boolean isRevokedInRedis(String digest) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(REVOKED_PREFIX + digest));
+        } catch (Exception e) {
+            log.warn("Failed to look up token revocation: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void revokeLocally(String digest, Instant expiresAt) {
+        if (!expiresAt.isAfter(clock.instant())) return;
+        revoked.put(digest, expiresAt);
+        verified.remove(digest);
+    }
+
+    /**
+     * Called when the cache is full: expired entries go first, and if that frees
+     * nothing an arbitrary tenth is dropped. Cheaper than LRU bookkeeping on every
+     * hit, and any dropped token is simply verified again.
+     */
+    private void trim(Instant now) {
+        verified.values().removeIf(jwt -> !isLive(jwt, now));
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+
+        int excess = verified.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static boolean isLive(Jwt jwt, Instant now) {
+        return jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(now);
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+    }
+}
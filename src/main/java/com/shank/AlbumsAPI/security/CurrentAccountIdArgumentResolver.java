@@ -0,0 +1,55 @@
+package com.shank.AlbumsAPI.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.service.AccountService;
+import com.shank.AlbumsAPI.service.TokenService;
+
+/**
+ * Resolves {@link CurrentAccountId} parameters from the account id claim of the
+ * verified JWT, so authenticated requests skip the account lookup by email.
+ * Tokens minted before the claim existed fall back to that lookup.
+ */
+@Component
+public class CurrentAccountIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final AccountService accountService;
+
+    CurrentAccountIdArgumentResolver(AccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentAccountId.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated())
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            Object claim = jwtAuthentication.getToken().getClaim(TokenService.ACCOUNT_ID_CLAIM);
+            if (claim instanceof Number accountId) return accountId.longValue();
+        }
+
+        // legacy token without the claim
+        return accountService.findByEmail(authentication.getName())
+                .map(Account::getId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+    }
+}
@@ -2,10 +2,17 @@ package com.shank.AlbumsAPI.security;
 
 import java.security.KeyPair;
 
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
 import java.util.UUID;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
 
 public class Jwks {
@@ -18,6 +25,22 @@ public class Jwks {
         return new RSAKey.Builder(publicKey) 
                 .privateKey(privateKey)
                 .keyID(UUID.randomUUID().toString())
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.RS256)
+                .issueTime(new Date())
+                .build();
+    }
+
+    public static ECKey generateEc() {
+        KeyPair keyPair = KeyGeneratorUtils.generateEcKey();
+        ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+        ECPrivateKey privateKey = (ECPrivateKey) keyPair.getPrivate();
+        return new ECKey.Builder(Curve.P_256, publicKey)
+                .privateKey(privateKey)
+                .keyID(UUID.randomUUID().toString())
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.ES256)
+                .issueTime(new Date())
                 .build();
     }
 }
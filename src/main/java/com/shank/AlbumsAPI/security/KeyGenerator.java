@@ -2,6 +2,7 @@ package com.shank.AlbumsAPI.security;
 
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
 
 import org.springframework.stereotype.Component;
 
@@ -21,4 +22,18 @@ final class KeyGeneratorUtils {
         }
         return keyPair;
     }
+
+    // P-256, as required by ES256
+    static KeyPair generateEcKey() {
+        KeyPair keyPair;
+
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+            keyPair = keyPairGenerator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return keyPair;
+    }
 }
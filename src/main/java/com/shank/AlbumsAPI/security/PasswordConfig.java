@@ -0,0 +1,96 @@
+package com.shank.AlbumsAPI.security;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Password hashing. Hashes are stored with an id prefix ({@code {bcrypt}...}) so
+ * the algorithm or work factor can change; hashes with an older id, a lower bcrypt
+ * cost, or no prefix at all (stored before ids were introduced) are re-hashed on
+ * the next successful login through {@code AccountService.updatePassword}.
+ *
+ * <p>With {@code security.password.bcrypt.strength=0} the bcrypt cost is calibrated
+ * at startup to the highest cost whose hash stays within
+ * {@code security.password.target-ms} on this machine. Pin the strength in
+ * production when nodes run on different hardware.
+ */
+@Configuration
+@Slf4j
+public class PasswordConfig {
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2@SpringSecurity_v5_8";
+    // cost of the unprefixed hashes already stored; never calibrate below it
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MAX_BCRYPT_STRENGTH = 16;
+
+    @Bean
+    public static PasswordEncoder passwordEncoder(
+            @Value("${security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${security.password.bcrypt.strength:0}") int strength,
+            @Value("${security.password.target-ms:250}") long targetMillis) {
+        int bcryptStrength = strength > 0 ? strength : calibrateBcrypt(targetMillis);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("pbkdf2".equals(algorithm) ? PBKDF2 : BCRYPT, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    // login verification runs here, not on request threads; a full queue is rejected (503)
+    @Bean
+    public ThreadPoolTaskExecutor passwordVerifyExecutor(
+            @Value("${security.password.verify-threads:0}") int threads,
+            @Value("${security.password.verify-queue-capacity:100}") int queueCapacity) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-verify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * bcrypt cost doubles per step, so one timed hash at the minimum cost is enough
+     * to pick the highest cost within the target.
+     */
+    static int calibrateBcrypt(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH);
+        probe.encode("calibration"); // warm-up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millis = Math.max(best / 1_000_000.0, 0.001);
+
+        int strength = MIN_BCRYPT_STRENGTH;
+        while (strength < MAX_BCRYPT_STRENGTH && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        log.info("🔐 bcrypt strength calibrated to {} (~{} ms per hash, target {} ms)",
+                strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+}
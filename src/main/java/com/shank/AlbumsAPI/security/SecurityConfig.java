@@ -1,7 +1,11 @@
 package com.shank.AlbumsAPI.security;
 
+import java.time.Clock;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -9,8 +13,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 // import org.springframework.security.core.userdetails.User;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
@@ -18,25 +20,18 @@ import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 // import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
-    private RSAKey rsaKey;
-
-    @Bean
-    public JWKSource<SecurityContext> jwkSource() {
-        rsaKey = Jwks.generatRsa();
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        return (jwkSelector, SecurityContext) -> jwkSelector.select(jwkSet);
-    }
 
     // @Bean
     // public InMemoryUserDetailsManager users() {
@@ -47,19 +42,21 @@ public class SecurityConfig {
     //                     .build());
     // }
 
-    @Bean
-    public static PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
     
     @Bean
-    JwtDecoder jwtDecoder() throws JOSEException{
-        return NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+    CachingJwtDecoder jwtDecoder(SigningKeyStore signingKeys, StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry,
+                                 @Value("${security.jwt.cache.max-entries:10000}") int maxEntries) {
+        // verifies with whichever stored key the token's kid names
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(SigningKeyStore.ALGORITHMS, signingKeys));
+        // claims are checked by the decoder's own validators
+        processor.setJWTClaimsSetVerifier((claims, context) -> {});
+        JwtDecoder nimbus = new NimbusJwtDecoder(processor);
+        return new CachingJwtDecoder(nimbus, stringRedisTemplate, meterRegistry, maxEntries, Clock.systemUTC());
     }
 
     @Bean
@@ -87,6 +84,8 @@ public class SecurityConfig {
                     .requestMatchers("/db-console/**").permitAll()
                     .requestMatchers("/swagger-ui/**").permitAll()
                     .requestMatchers("/v3/api-docs/**").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/actuator/**").hasAuthority("SCOPE_ADMIN")
                     .anyRequest().authenticated())
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(withDefaults()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
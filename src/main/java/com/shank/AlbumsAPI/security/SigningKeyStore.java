@@ -0,0 +1,217 @@
+package com.shank.AlbumsAPI.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token signing keys, kept as one JWK file per key ({@code <kid>.jwk}) in
+ * {@code security.jwt.keys.dir}. Keys survive restarts, and nodes that share the
+ * directory accept each other's tokens.
+ *
+ * <p>The newest key of the configured algorithm signs; every key in the directory
+ * verifies, selected by the token's {@code kid}. A key older than
+ * {@code rotate-after-hours} is replaced by a new one, and a replaced key is
+ * deleted once the tokens it signed have expired ({@code retain-hours} after its
+ * successor was created). Only nodes with {@code security.jwt.keys.rotate=true}
+ * write to the directory; the others pick up new keys when they see an unknown
+ * {@code kid}.
+ *
+ * <p>The directory is created owner-only ({@code rwx------}), and the store refuses
+ * to start if it is owned by another user: whoever can write to it can mint tokens.
+ * It defaults to {@code ~/.albumix/keys}; set {@code JWT_KEYS_DIR} to share it.
+ */
+@Component
+@Slf4j
+public class SigningKeyStore implements JWKSource<SecurityContext> {
+
+    public static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+    static final String EXTENSION = ".jwk";
+    // bounds directory reads caused by tokens with an unknown kid
+    static final Duration RELOAD_INTERVAL = Duration.ofSeconds(30);
+    static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path dir;
+    private final JWSAlgorithm algorithm;
+    private final Duration rotateAfter;
+    private final Duration retain;
+    private final boolean rotate;
+
+    // newest first
+    private volatile JWKSet keys = new JWKSet();
+    private volatile Instant loadedAt = Instant.EPOCH;
+
+    SigningKeyStore(@Value("${security.jwt.keys.dir:${user.home}/.albumix/keys}") String dir,
+                    @Value("${security.jwt.algorithm:RS256}") String algorithm,
+                    @Value("${security.jwt.keys.rotate-after-hours:168}") long rotateAfterHours,
+                    @Value("${security.jwt.keys.retain-hours:2}") long retainHours,
+                    @Value("${security.jwt.keys.rotate:true}") boolean rotate) throws IOException {
+        this.dir = Paths.get(dir);
+        this.algorithm = JWSAlgorithm.parse(algorithm);
+        if (!ALGORITHMS.contains(this.algorithm)) {
+            throw new IllegalArgumentException("security.jwt.algorithm must be RS256 or ES256, not " + algorithm);
+        }
+        this.rotateAfter = Duration.ofHours(rotateAfterHours);
+        this.retain = Duration.ofHours(retainHours);
+        this.rotate = rotate;
+
+        secure(this.dir);
+        maintain();
+        if (signingKey() == null) {
+            throw new IllegalStateException("No " + algorithm + " signing key in " + dir + " and key rotation is off");
+        }
+    }
+
+    // the key new tokens are signed with
+    public JWK signingKey() {
+        for (JWK key : keys.getKeys()) {
+            if (algorithm.equals(key.getAlgorithm())) return key;
+        }
+        return null;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> matches = jwkSelector.select(keys);
+        if (matches.isEmpty() && loadedAt.plus(RELOAD_INTERVAL).isBefore(Instant.now())) {
+            // a peer may have rotated
+            load();
+            matches = jwkSelector.select(keys);
+        }
+        return matches;
+    }
+
+    @Scheduled(initialDelayString = "${security.jwt.keys.check-interval-ms:600000}",
+               fixedDelayString = "${security.jwt.keys.check-interval-ms:600000}")
+    public synchronized void maintain() {
+        load();
+        if (!rotate) return;
+
+        Instant now = Instant.now();
+        JWK active = signingKey();
+        if (active == null || issuedAt(active).plus(rotateAfter).isBefore(now)) {
+            try {
+                JWK created = algorithm.equals(JWSAlgorithm.ES256) ? Jwks.generateEc() : Jwks.generatRsa();
+                write(created);
+                log.info("🔑 New {} signing key {}", algorithm, created.getKeyID());
+            } catch (IOException e) {
+                // keep signing with the current key; the next check retries
+                log.error("❌ Failed to write signing key to {}", dir, e);
+            }
+            load();
+        }
+
+        // a key retires when the next newer key is created
+        List<JWK> sorted = keys.getKeys();
+        boolean deleted = false;
+        for (int i = 1; i < sorted.size(); i++) {
+            Instant retiredAt = issuedAt(sorted.get(i - 1));
+            if (retiredAt.plus(retain).isBefore(now)) deleted |= delete(sorted.get(i));
+        }
+        if (deleted) load();
+    }
+
+    static void secure(Path dir) throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(dir);
+            return;
+        }
+        if (!Files.isDirectory(dir)) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        }
+        UserPrincipal owner = Files.getOwner(dir);
+        UserPrincipal self = dir.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(self)) {
+            throw new IllegalStateException("Signing key directory " + dir + " is owned by " + owner.getName()
+                    + ", not " + self.getName());
+        }
+        if (!Files.getPosixFilePermissions(dir).equals(OWNER_ONLY)) {
+            log.warn("Signing key directory {} was open to other users; restricting it to its owner", dir);
+            Files.setPosixFilePermissions(dir, OWNER_ONLY);
+        }
+    }
+
+    private synchronized void load() {
+        List<JWK> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path file : files) {
+                try {
+                    JWK key = JWK.parse(Files.readString(file, StandardCharsets.UTF_8));
+                    if (key.isPrivate() && ALGORITHMS.contains(key.getAlgorithm())) {
+                        loaded.add(key);
+                    } else {
+                        log.warn("Skipping {}: not a private RS256/ES256 key", file);
+                    }
+                } catch (Exception e) {
+                    log.warn("Skipping unreadable signing key {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            // keep the keys already loaded
+            log.error("❌ Failed to read signing keys from {}", dir, e);
+            return;
+        }
+        loaded.sort(Comparator.comparing(SigningKeyStore::issuedAt).reversed());
+        keys = new JWKSet(loaded);
+        loadedAt = Instant.now();
+    }
+
+    // written to a temp file and moved, so a peer never reads half a key
+    private void write(JWK key) throws IOException {
+        Path temp = Files.createTempFile(dir, "key", ".tmp");
+        try {
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+            }
+            Files.writeString(temp, key.toJSONString(), StandardCharsets.UTF_8);
+            Files.move(temp, dir.resolve(key.getKeyID() + EXTENSION), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private boolean delete(JWK key) {
+        try {
+            boolean deleted = Files.deleteIfExists(dir.resolve(key.getKeyID() + EXTENSION));
+            if (deleted) log.info("🔑 Retired signing key {} deleted", key.getKeyID());
+            return deleted;
+        } catch (IOException e) {
+            log.warn("Failed to delete retired signing key {}: {}", key.getKeyID(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static Instant issuedAt(JWK key) {
+        Date issueTime = key.getIssueTime();
+        return issueTime == null ? Instant.EPOCH : issueTime.toInstant();
+    }
+}
@@ -7,8 +7,8 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,10 +16,11 @@ import org.springframework.stereotype.Service;
 
 import com.shank.AlbumsAPI.model.Account;
 import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.security.AccountPrincipal;
 import com.shank.AlbumsAPI.util.constants.Authority;
 
 @Service
-public class AccountService implements UserDetailsService{
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private AccountRepository accountRepository;
 
@@ -46,6 +47,11 @@ public class AccountService implements UserDetailsService{
         return accountRepository.findById(id);
     }
 
+    // proxy for associations, no query issued
+    public Account getReferenceById(long id) {
+        return accountRepository.getReferenceById(id);
+    }
+
     public void deleteByID(long id) {
         accountRepository.deleteById(id);
     }
@@ -61,6 +67,19 @@ public class AccountService implements UserDetailsService{
 
         List<GrantedAuthority> grantedAuthority = new ArrayList<>();
         grantedAuthority.add(new SimpleGrantedAuthority(account.getAuthorities()));
-        return new User(account.getEmail(), account.getPassword(), grantedAuthority);
+        return new AccountPrincipal(account.getId(), account.getEmail(), account.getPassword(), grantedAuthority);
+    }
+
+    // called after a successful login whose stored hash uses outdated parameters;
+    // newPassword is already encoded with the current ones
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Optional<Account> optionalAccount = accountRepository.findByEmail(user.getUsername());
+        if (optionalAccount.isEmpty()) return user;
+
+        Account account = optionalAccount.get();
+        account.setPassword(newPassword);
+        accountRepository.save(account);
+        return new AccountPrincipal(account.getId(), account.getEmail(), newPassword, user.getAuthorities());
     }
 }
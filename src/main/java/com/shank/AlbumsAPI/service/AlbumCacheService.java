@@ -0,0 +1,604 @@
+package com.shank.AlbumsAPI.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.shank.AlbumsAPI.payload.albums.AlbumIndexDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumPageDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.payload.albums.CachedValueDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier cache for album listings: a bounded in-process L1 in front of Redis.
+ * Evictions delete the Redis entries and are broadcast on {@link #INVALIDATION_CHANNEL}
+ * so every node drops its L1 copies.
+ *
+ * <p>Entries are per album, so a write only evicts the album it touched:
+ * <ul>
+ *   <li>{@code album::<albumId>}: the album with its first photos, as listed;</li>
+ *   <li>{@code albums:v2::<accountId>} field {@code index}: the account's album ids,
+ *       from which {@code GET /albums} cuts a page and fills it with one MGET;</li>
+ *   <li>{@code albums:v2::<accountId>::<albumId>}: pages of one album's photos.</li>
+ * </ul>
+ * The account's id in the last two keys makes a hit imply ownership. They are
+ * hashes under their own prefix: earlier releases kept a plain string at
+ * {@code albums::<accountId>}, which nodes of both versions can still meet
+ * during a rolling deploy.
+ *
+ * <p>The index and photo pages are read through {@link #getOrLoad}, which keeps a
+ * missing entry from being rebuilt by every caller at once. Concurrent misses on a
+ * node share one load, and across nodes the load runs under a short
+ * {@link RedisLock} while the other nodes poll Redis for its result. An entry is
+ * fresh for {@code albums.cache.fresh-seconds}, then served stale for up to
+ * {@code albums.cache.stale-seconds} while a background refresh runs. Near the end
+ * of its freshness a read may also refresh it early, with a probability that rises
+ * with how long the entry took to build (XFetch), so popular entries rarely expire
+ * at all. Album entries are cheap to rebuild and only share concurrent loads on
+ * the node.
+ */
+@Service
+@Slf4j
+public class AlbumCacheService implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "albums::invalidate";
+    static final String KEY_PREFIX = "albums:v2::";
+    static final String INDEX_FIELD = "index";
+    static final String LOCK_PREFIX = "albums::lock::";
+    static final long LOCK_POLL_MILLIS = 25;
+    // invalidation counters are striped by key to stay bounded
+    static final int EPOCH_STRIPES = 1024;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisLock redisLock;
+    private final ThreadPoolTaskExecutor refreshExecutor;
+    private final LocalCache l1;
+    private final long freshMillis;
+    private final long staleMillis;
+    private final double earlyRefreshBeta;
+    private final Duration lockTtl;
+    private final long lockWaitMillis;
+
+    // sender id, so a node can skip its own broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // one load per entry on this node; later callers join it
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // bumped on every eviction; a load that overlapped one is not cached
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+
+    private final FamilyMeters indexMeters;
+    private final FamilyMeters albumMeters;
+    private final FamilyMeters photosMeters;
+    private final Counter l1Evictions;
+    private final Counter redisEvictions;
+    private final Counter staleServed;
+    private final Counter earlyRefreshes;
+    private final Counter lockWaits;
+
+    AlbumCacheService(RedisTemplate<String, Object> redisTemplate,
+                      StringRedisTemplate stringRedisTemplate,
+                      RedisLock redisLock,
+                      @Qualifier("albumCacheRefreshExecutor") ThreadPoolTaskExecutor refreshExecutor,
+                      MeterRegistry meterRegistry,
+                      @Value("${albums.cache.l1.max-weight:20000}") long l1MaxWeight,
+                      @Value("${albums.cache.l1.ttl-seconds:60}") long l1TtlSeconds,
+                      @Value("${albums.cache.fresh-seconds:600}") long freshSeconds,
+                      @Value("${albums.cache.stale-seconds:120}") long staleSeconds,
+                      @Value("${albums.cache.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                      @Value("${albums.cache.lock-ms:5000}") long lockMillis,
+                      @Value("${albums.cache.lock-wait-ms:3000}") long lockWaitMillis) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisLock = redisLock;
+        this.refreshExecutor = refreshExecutor;
+        this.l1 = new LocalCache(l1MaxWeight, TimeUnit.SECONDS.toMillis(l1TtlSeconds));
+        this.freshMillis = TimeUnit.SECONDS.toMillis(freshSeconds);
+        this.staleMillis = TimeUnit.SECONDS.toMillis(staleSeconds);
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.lockTtl = Duration.ofMillis(lockMillis);
+        this.lockWaitMillis = lockWaitMillis;
+
+        this.indexMeters = new FamilyMeters(meterRegistry, "index");
+        this.albumMeters = new FamilyMeters(meterRegistry, "album");
+        this.photosMeters = new FamilyMeters(meterRegistry, "photos");
+        this.l1Evictions = meterRegistry.counter("albums.cache.evictions", "tier", "l1");
+        this.redisEvictions = meterRegistry.counter("albums.cache.evictions", "tier", "redis");
+        this.staleServed = meterRegistry.counter("albums.cache.stale.served");
+        this.earlyRefreshes = meterRegistry.counter("albums.cache.refresh.early");
+        this.lockWaits = meterRegistry.counter("albums.cache.lock.waits");
+        Gauge.builder("albums.cache.l1.weight", l1, LocalCache::weight).register(meterRegistry);
+    }
+
+    public static String albumsCacheKey(long accountId) {
+        return KEY_PREFIX + accountId;
+    }
+
+    public static String albumPagesKey(long accountId, long albumId) {
+        return KEY_PREFIX + accountId + "::" + albumId;
+    }
+
+    public static String albumKey(long albumId) {
+        return "album::" + albumId;
+    }
+
+    public AlbumIndexDTO index(long accountId, Supplier<AlbumIndexDTO> loader) {
+        return getOrLoad(albumsCacheKey(accountId), INDEX_FIELD, loader);
+    }
+
+    public AlbumPageDTO albumPage(long accountId, long albumId, String page, Supplier<AlbumPageDTO> loader) {
+        return getOrLoad(albumPagesKey(accountId, albumId), page, loader);
+    }
+
+    /**
+     * The albums with the given ids, in that order: from L1, then from Redis with
+     * one MGET, and the rest from one call to the loader. Ids the loader does not
+     * return (albums deleted meanwhile) are left out.
+     */
+    public List<AlbumViewDTO> albums(List<Long> albumIds, Function<List<Long>, Map<Long, AlbumViewDTO>> loader) {
+        Map<Long, AlbumViewDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (long albumId : albumIds) {
+            if (l1.get(albumKey(albumId), "") instanceof AlbumViewDTO album) {
+                albumMeters.l1Hits.increment();
+                found.put(albumId, album);
+            } else {
+                albumMeters.l1Misses.increment();
+                missing.add(albumId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Object> values = redisTemplate.opsForValue()
+                    .multiGet(missing.stream().map(AlbumCacheService::albumKey).toList());
+            List<Long> unbuilt = new ArrayList<>();
+            for (int i = 0; i < missing.size(); i++) {
+                long albumId = missing.get(i);
+                if (values != null && values.get(i) instanceof AlbumViewDTO album) {
+                    albumMeters.redisHits.increment();
+                    found.put(albumId, album);
+                    l1.put(albumKey(albumId), "", album);
+                } else {
+                    albumMeters.redisMisses.increment();
+                    unbuilt.add(albumId);
+                }
+            }
+            if (!unbuilt.isEmpty()) found.putAll(loadAlbums(unbuilt, loader));
+        }
+
+        List<AlbumViewDTO> albums = new ArrayList<>(albumIds.size());
+        for (long albumId : albumIds) {
+            AlbumViewDTO album = found.get(albumId);
+            if (album != null) albums.add(album);
+        }
+        return albums;
+    }
+
+    // after a change to the album itself, its photos, or its deletion
+    public void evictAlbum(long accountId, long albumId) {
+        evict(albumKey(albumId), albumPagesKey(accountId, albumId));
+    }
+
+    // after an album is added to or removed from the account
+    public void evictIndex(long accountId) {
+        evict(albumsCacheKey(accountId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int sep = body.indexOf('|');
+        if (sep < 0 || body.substring(0, sep).equals(nodeId)) return;
+        for (String key : body.substring(sep + 1).split(",")) {
+            bumpEpoch(key);
+            if (l1.removeKey(key)) l1Evictions.increment();
+        }
+    }
+
+    /**
+     * The cached value of a hash field, or the loader's result when there is none.
+     * The loader runs at most once at a time per field across all nodes; its
+     * exceptions reach every caller waiting on it.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getOrLoad(String key, String field, Supplier<T> loader) {
+        CachedValueDTO cached = lookup(key, field);
+        if (cached != null) {
+            long now = System.currentTimeMillis();
+            if (now >= cached.getFreshUntil()) {
+                staleServed.increment();
+                refreshInBackground(key, field, loader);
+            } else if (shouldRefreshEarly(cached, now)) {
+                earlyRefreshes.increment();
+                refreshInBackground(key, field, loader);
+            }
+            return (T) cached.getValue();
+        }
+        return (T) join(load(key, field, loader));
+    }
+
+    private void evict(String... keys) {
+        for (String key : keys) {
+            bumpEpoch(key);
+            if (l1.removeKey(key)) l1Evictions.increment();
+        }
+        Long deleted = redisTemplate.delete(List.of(keys));
+        if (deleted != null) redisEvictions.increment(deleted);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + String.join(",", keys));
+        } catch (Exception e) {
+            // peers fall back to the L1 ttl
+            log.warn("Failed to publish cache invalidation for {}: {}", String.join(",", keys), e.getMessage());
+        }
+    }
+
+    private CachedValueDTO lookup(String key, String field) {
+        FamilyMeters meters = meters(field);
+        if (l1.get(key, field) instanceof CachedValueDTO local) {
+            meters.l1Hits.increment();
+            return local;
+        }
+        meters.l1Misses.increment();
+
+        // entries written before values carried freshness read as misses
+        if (!(redisTemplate.opsForHash().get(key, field) instanceof CachedValueDTO cached)) {
+            meters.redisMisses.increment();
+            return null;
+        }
+        meters.redisHits.increment();
+        l1.put(key, field, cached);
+        return cached;
+    }
+
+    private void put(String key, String field, CachedValueDTO cached) {
+        redisTemplate.opsForHash().put(key, field, cached);
+        // the stale window outlives freshness, so the key must too
+        redisTemplate.expire(key, freshMillis + staleMillis, TimeUnit.MILLISECONDS);
+        l1.put(key, field, cached);
+    }
+
+    // builds albums in one batch; ids another caller on this node is building are joined
+    private Map<Long, AlbumViewDTO> loadAlbums(List<Long> albumIds,
+                                               Function<List<Long>, Map<Long, AlbumViewDTO>> loader) {
+        Map<Long, CompletableFuture<Object>> mine = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<Object>> theirs = new HashMap<>();
+        for (long albumId : albumIds) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            CompletableFuture<Object> running = inFlight.putIfAbsent(albumKey(albumId) + "|", future);
+            if (running == null) {
+                mine.put(albumId, future);
+            } else {
+                albumMeters.coalesced.increment();
+                theirs.put(albumId, running);
+            }
+        }
+
+        Map<Long, AlbumViewDTO> albums = new HashMap<>();
+        if (!mine.isEmpty()) {
+            List<Long> ids = new ArrayList<>(mine.keySet());
+            long[] before = new long[ids.size()];
+            for (int i = 0; i < ids.size(); i++) before[i] = epochs.get(stripe(albumKey(ids.get(i))));
+            try {
+                Map<Long, AlbumViewDTO> loaded = albumMeters.loads.record(() -> loader.apply(ids));
+                Map<String, AlbumViewDTO> writes = new HashMap<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    long albumId = ids.get(i);
+                    AlbumViewDTO album = loaded.get(albumId);
+                    if (album == null) continue;
+                    albums.put(albumId, album);
+                    // an eviction during the load may have made this album stale already
+                    if (epochs.get(stripe(albumKey(albumId))) == before[i]) writes.put(albumKey(albumId), album);
+                }
+                writeAlbums(writes);
+                mine.forEach((albumId, future) -> future.complete(loaded.get(albumId)));
+            } catch (Throwable e) {
+                mine.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                mine.forEach((albumId, future) -> inFlight.remove(albumKey(albumId) + "|", future));
+            }
+        }
+
+        theirs.forEach((albumId, future) -> {
+            if (join(future) instanceof AlbumViewDTO album) albums.put(albumId, album);
+        });
+        return albums;
+    }
+
+    // one round trip for the whole batch
+    private void writeAlbums(Map<String, AlbumViewDTO> albums) {
+        if (albums.isEmpty()) return;
+        albums.forEach((key, album) -> l1.put(key, "", album));
+        long ttlMillis = freshMillis + staleMillis;
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    albums.forEach((key, album) -> ops.opsForValue().set(key, album, ttlMillis, TimeUnit.MILLISECONDS));
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            // the next miss rebuilds them
+            log.warn("Failed to write {} albums to the cache: {}", albums.size(), e.getMessage());
+        }
+    }
+
+    // XFetch: refresh when now - rebuild * beta * ln(rand) passes the freshness deadline
+    private boolean shouldRefreshEarly(CachedValueDTO cached, long now) {
+        if (earlyRefreshBeta <= 0 || cached.getRebuildMillis() <= 0) return false;
+        double gap = -cached.getRebuildMillis() * earlyRefreshBeta * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return now + gap >= cached.getFreshUntil();
+    }
+
+    private void refreshInBackground(String key, String field, Supplier<?> loader) {
+        if (inFlight.containsKey(key + "|" + field)) return;
+        refreshExecutor.execute(() -> {
+            try {
+                load(key, field, loader);
+            } catch (RuntimeException e) {
+                log.warn("Background refresh of {} {} failed: {}", key, field, e.getMessage());
+            }
+        });
+    }
+
+    // runs on the first caller's thread; everyone else on this node joins its future
+    private CompletableFuture<Object> load(String key, String field, Supplier<?> loader) {
+        String flightKey = key + "|" + field;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, mine);
+        if (running != null) {
+            meters(field).coalesced.increment();
+            return running;
+        }
+        try {
+            mine.complete(loadAcrossNodes(key, field, loader));
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+        return mine;
+    }
+
+    private Object loadAcrossNodes(String key, String field, Supplier<?> loader) {
+        String lockKey = LOCK_PREFIX + key + "|" + field;
+        String token = null;
+        try {
+            token = redisLock.tryAcquire(lockKey, lockTtl);
+            if (token == null) {
+                lockWaits.increment();
+                Object built = awaitPeer(key, field);
+                if (built != null) return built;
+                // the holder is slow or gone; rebuild here rather than fail
+            }
+        } catch (RuntimeException e) {
+            // without Redis every node rebuilds on its own, as before
+            log.warn("Cache lock {} unavailable: {}", lockKey, e.getMessage());
+        }
+
+        try {
+            long epoch = epochs.get(stripe(key));
+            long started = System.currentTimeMillis();
+            Object value = meters(field).loads.record(loader);
+            long now = System.currentTimeMillis();
+            // an eviction during the load may have made this result stale already
+            if (epochs.get(stripe(key)) == epoch) {
+                put(key, field, new CachedValueDTO(value, now + freshMillis, now - started));
+            }
+            return value;
+        } finally {
+            if (token != null) releaseQuietly(lockKey, token);
+        }
+    }
+
+    // polls Redis until the lock holder's fresh value shows up, or gives up
+    private Object awaitPeer(String key, String field) {
+        long deadline = System.currentTimeMillis() + lockWaitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            if (redisTemplate.opsForHash().get(key, field) instanceof CachedValueDTO cached
+                    && System.currentTimeMillis() < cached.getFreshUntil()) {
+                l1.put(key, field, cached);
+                return cached.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void releaseQuietly(String lockKey, String token) {
+        try {
+            redisLock.release(lockKey, token);
+        } catch (RuntimeException e) {
+            // it expires on its own
+            log.warn("Failed to release cache lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+
+    // the loader's own exception, not the CompletionException around it
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // album entries are not read through here, so the field tells the family
+    private FamilyMeters meters(String field) {
+        return INDEX_FIELD.equals(field) ? indexMeters : photosMeters;
+    }
+
+    private void bumpEpoch(String key) {
+        epochs.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), EPOCH_STRIPES);
+    }
+
+    /**
+     * LRU map of cache values bounded by total weight, where a value weighs one
+     * plus its album, photo and id count. Entries also expire after a short ttl
+     * so a lost invalidation message cannot keep a node stale for long. The fields
+     * cached under each Redis key are indexed, so dropping a key costs its fields.
+     */
+    private final class LocalCache {
+
+        private final long maxWeight;
+        private final long ttlMillis;
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<String, Set<String>> fieldsByKey = new HashMap<>();
+        private long weight;
+
+        LocalCache(long maxWeight, long ttlMillis) {
+            this.maxWeight = maxWeight;
+            this.ttlMillis = ttlMillis;
+        }
+
+        synchronized Object get(String redisKey, String field) {
+            String key = redisKey + "|" + field;
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                removeEntry(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(String redisKey, String field, Object value) {
+            String key = redisKey + "|" + field;
+            long entryWeight = weigh(value);
+            removeEntry(key);
+            if (entryWeight > maxWeight) return;
+
+            entries.put(key, new Entry(redisKey, field, value, entryWeight, System.currentTimeMillis() + ttlMillis));
+            fieldsByKey.computeIfAbsent(redisKey, k -> new HashSet<>()).add(field);
+            weight += entryWeight;
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                weight -= evicted.weight;
+                unindex(evicted);
+                l1Evictions.increment();
+            }
+        }
+
+        // drops every field of a Redis key
+        synchronized boolean removeKey(String redisKey) {
+            Set<String> fields = fieldsByKey.remove(redisKey);
+            if (fields == null) return false;
+            for (String field : fields) {
+                Entry removed = entries.remove(redisKey + "|" + field);
+                if (removed != null) weight -= removed.weight;
+            }
+            return true;
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        private boolean removeEntry(String key) {
+            Entry removed = entries.remove(key);
+            if (removed == null) return false;
+            weight -= removed.weight;
+            unindex(removed);
+            return true;
+        }
+
+        private void unindex(Entry entry) {
+            Set<String> fields = fieldsByKey.get(entry.redisKey);
+            if (fields != null && fields.remove(entry.field) && fields.isEmpty()) fieldsByKey.remove(entry.redisKey);
+        }
+
+        private long weigh(Object value) {
+            if (value instanceof CachedValueDTO cached) return weigh(cached.getValue());
+            if (value instanceof AlbumIndexDTO index) {
+                return 1 + (index.getAlbumIds() == null ? 0 : index.getAlbumIds().size());
+            }
+            if (value instanceof AlbumViewDTO album) {
+                return 1 + (album.getPhotos() == null ? 0 : album.getPhotos().size());
+            }
+            long w = 1;
+            if (value instanceof AlbumPageDTO page && page.getAlbums() != null) {
+                for (AlbumViewDTO album : page.getAlbums()) w += weigh(album);
+            }
+            return w;
+        }
+    }
+
+    private record Entry(String redisKey, String field, Object value, long weight, long expiresAt) {}
+
+    // per key family: index, album or photos
+    private static final class FamilyMeters {
+
+        final Counter l1Hits;
+        final Counter l1Misses;
+        final Counter redisHits;
+        final Counter redisMisses;
+        final Counter coalesced;
+        final Timer loads;
+
+        FamilyMeters(MeterRegistry meterRegistry, String family) {
+            this.l1Hits = requests(meterRegistry, family, "l1", "hit");
+            this.l1Misses = requests(meterRegistry, family, "l1", "miss");
+            this.redisHits = requests(meterRegistry, family, "redis", "hit");
+            this.redisMisses = requests(meterRegistry, family, "redis", "miss");
+            this.coalesced = meterRegistry.counter("albums.cache.coalesced", "family", family);
+            this.loads = Timer.builder("albums.cache.load")
+                    .tag("family", family)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String family, String tier, String result) {
+            return meterRegistry.counter("albums.cache.requests", "family", family, "tier", tier, "result", result);
+        }
+    }
+}
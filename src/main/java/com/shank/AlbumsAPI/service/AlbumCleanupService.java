@@ -0,0 +1,137 @@
+package com.shank.AlbumsAPI.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.AlbumCleanup;
+import com.shank.AlbumsAPI.payload.albums.AlbumCleanupDTO;
+import com.shank.AlbumsAPI.repository.AlbumCleanupRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoBlobRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import com.shank.AlbumsAPI.util.constants.CleanupStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes albums in bulk and removes their files in the background. The rows go
+ * in one transaction together with a durable {@link AlbumCleanup} job; the job
+ * is handed to the cleanup executor straight away and is also found by a poller,
+ * which covers restarts and hand-offs rejected by a full queue.
+ */
+@Service
+@Slf4j
+public class AlbumCleanupService {
+
+    private static final int PROGRESS_EVERY = 100;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Autowired
+    private AlbumCleanupRepository albumCleanupRepository;
+
+    @Autowired
+    private PhotoBlobService photoBlobService;
+
+    @Autowired
+    private ThumbnailStore thumbnailStore;
+
+    @Autowired
+    @Qualifier("albumCleanupExecutor")
+    private ThreadPoolTaskExecutor albumCleanupExecutor;
+
+    @Value("${albums.cleanup.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${albums.cleanup.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${albums.cleanup.batch-size:20}")
+    private int batchSize;
+
+    /**
+     * Deletes the album's photos and the album with bulk statements and queues
+     * the file cleanup. Blob references are dropped in the same transaction, so
+     * the reference counts never disagree with the photo table.
+     */
+    @Transactional
+    public AlbumCleanup deleteAlbum(long albumId, long accountId) {
+        List<String> hashes = photoRepository.findContentHashesByAlbumId(albumId);
+        if (!hashes.isEmpty()) photoBlobRepository.releaseAlbumReferences(albumId);
+        photoRepository.deleteAllByAlbumIdInBulk(albumId);
+        albumRepository.deleteByIdInBulk(albumId);
+        return albumCleanupRepository.save(new AlbumCleanup(albumId, accountId, hashes));
+    }
+
+    // call once the deleting transaction has committed
+    public void submit(long cleanupId) {
+        try {
+            albumCleanupExecutor.execute(() -> run(cleanupId));
+        } catch (TaskRejectedException e) {
+            log.warn("Album cleanup {} queued for the poller: {}", cleanupId, e.getMessage());
+        }
+    }
+
+    // latest cleanup of an album, visible only to the account that deleted it
+    public Optional<AlbumCleanupDTO> findLatestByAlbumId(long albumId, long accountId) {
+        return albumCleanupRepository.findFirstByAlbumIdOrderByIdDesc(albumId)
+                .filter(c -> c.getAccountId() == accountId)
+                .map(c -> new AlbumCleanupDTO(c.getId(), c.getAlbumId(), c.getStatus(), c.getTotalItems(),
+                        c.getCompletedItems(), c.getAttempts(), c.getLastError(), c.getCreatedAt(), c.getUpdatedAt()));
+    }
+
+    @Scheduled(initialDelayString = "${albums.cleanup.poll-ms:30000}", fixedDelayString = "${albums.cleanup.poll-ms:30000}")
+    public void poll() {
+        Instant staleBefore = Instant.now().minus(Duration.ofSeconds(leaseSeconds));
+        for (long id : albumCleanupRepository.findRunnableIds(staleBefore, PageRequest.of(0, batchSize))) {
+            submit(id);
+        }
+    }
+
+    void run(long cleanupId) {
+        Instant now = Instant.now();
+        if (albumCleanupRepository.claim(cleanupId, now, now.minus(Duration.ofSeconds(leaseSeconds))) == 0) return;
+        AlbumCleanup cleanup = albumCleanupRepository.findById(cleanupId).orElse(null);
+        if (cleanup == null) return;
+
+        try {
+            // legacy photos live under the album directory; blob files are shared
+            AppUtil.delete_album_directory(cleanup.getAlbumId());
+            thumbnailStore.deleteUnder(AppUtil.get_album_path(cleanup.getAlbumId()));
+            int completed = 1;
+            for (String hash : albumCleanupRepository.findBlobHashes(cleanupId)) {
+                photoBlobService.sweep(hash);
+                if (++completed % PROGRESS_EVERY == 0)
+                    albumCleanupRepository.updateProgress(cleanupId, completed, Instant.now());
+            }
+            albumCleanupRepository.updateProgress(cleanupId, completed, Instant.now());
+            albumCleanupRepository.finish(cleanupId, CleanupStatus.DONE, null, Instant.now());
+            log.info("Album cleanup {} done: album {}, {} items", cleanupId, cleanup.getAlbumId(), completed);
+        } catch (Exception e) {
+            CleanupStatus next = cleanup.getAttempts() >= maxAttempts ? CleanupStatus.FAILED : CleanupStatus.PENDING;
+            albumCleanupRepository.finish(cleanupId, next, StringUtils.abbreviate(String.valueOf(e.getMessage()), 255), Instant.now());
+            log.error("❌ Album cleanup {} failed (attempt {}): {}", cleanupId, cleanup.getAttempts(), e.getMessage());
+        }
+    }
+}
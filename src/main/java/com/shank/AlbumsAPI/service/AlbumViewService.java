@@ -0,0 +1,114 @@
+package com.shank.AlbumsAPI.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.payload.albums.AlbumIndexDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumRowDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoRowDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoRowView;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.util.apputils.Cursor;
+
+/**
+ * Read path for album listings. Albums and photos are fetched as flat row
+ * projections and the {@link AlbumViewDTO} tree is assembled in memory, so the
+ * number of statements does not grow with the album count.
+ *
+ * <p>Photo pages are keyset-paginated on id ({@code id > :afterId order by id}), so
+ * the cost of a page depends on its size, not on how many rows precede it.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AlbumViewService {
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    public static String downloadLink(long albumId, long photoId) {
+        return "/albums/" + albumId + "/photos/" + photoId + "/download-photo";
+    }
+
+    public Optional<AlbumRowDTO> findAlbumRow(long albumId) {
+        return albumRepository.findRowById(albumId);
+    }
+
+    public AlbumIndexDTO findAlbumIndex(long accountId) {
+        return new AlbumIndexDTO(new ArrayList<>(albumRepository.findIdsByAccountId(accountId)));
+    }
+
+    // 2 statements: the albums, then the first photos of each; albums that no longer exist are absent
+    public Map<Long, AlbumViewDTO> findAlbumViews(Collection<Long> albumIds, int photosPerAlbum) {
+        Map<Long, AlbumViewDTO> views = new HashMap<>();
+        if (albumIds.isEmpty()) return views;
+        for (AlbumViewDTO view : assemble(albumRepository.findRowsByIds(albumIds), photosPerAlbum)) {
+            views.put(view.getId(), view);
+        }
+        return views;
+    }
+
+    private List<AlbumViewDTO> assemble(List<AlbumRowDTO> albumRows, int photosPerAlbum) {
+        if (albumRows.isEmpty()) return new ArrayList<>();
+        List<Long> albumIds = albumRows.stream().map(AlbumRowDTO::getId).toList();
+        Map<Long, List<PhotoDTO>> photosByAlbum = new HashMap<>();
+        for (PhotoRowView row : photoRepository.findFirstRowsByAlbumIds(albumIds, photosPerAlbum + 1)) {
+            photosByAlbum.computeIfAbsent(row.getAlbumId(), id -> new ArrayList<>())
+                    .add(new PhotoDTO(row.getId(), row.getName(), row.getDescription(),
+                            downloadLink(row.getAlbumId(), row.getId())));
+        }
+
+        List<AlbumViewDTO> albums = new ArrayList<>(albumRows.size());
+        for (AlbumRowDTO album : albumRows) {
+            List<PhotoDTO> photos = photosByAlbum.getOrDefault(album.getId(), new ArrayList<>());
+            String photosCursor = null;
+            if (photos.size() > photosPerAlbum) {
+                photos = new ArrayList<>(photos.subList(0, photosPerAlbum));
+                photosCursor = Cursor.encode(photos.get(photos.size() - 1).getId());
+            }
+            albums.add(new AlbumViewDTO(album.getId(), album.getName(), album.getDescription(), photos, photosCursor));
+        }
+        return albums;
+    }
+
+    // 1 statement: one page of photos of an album whose row is already known
+    public AlbumViewDTO findAlbumViewPage(AlbumRowDTO album, long afterPhotoId, int limit) {
+        List<PhotoRowDTO> rows = photoRepository.findRowsByAlbumIdAfter(album.getId(), afterPhotoId,
+                PageRequest.ofSize(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows = rows.subList(0, limit);
+
+        List<PhotoDTO> photos = new ArrayList<>(rows.size());
+        for (PhotoRowDTO row : rows) {
+            photos.add(toPhotoDTO(row));
+        }
+        String photosCursor = hasMore ? Cursor.encode(rows.get(rows.size() - 1).getId()) : null;
+        return new AlbumViewDTO(album.getId(), album.getName(), album.getDescription(), photos, photosCursor);
+    }
+
+    public List<PhotoDTO> findPhotosByAlbumId(long albumId) {
+        List<PhotoDTO> photos = new ArrayList<>();
+        for (PhotoRowDTO row : photoRepository.findRowsByAlbumId(albumId)) {
+            photos.add(toPhotoDTO(row));
+        }
+        return photos;
+    }
+
+    private PhotoDTO toPhotoDTO(PhotoRowDTO row) {
+        return new PhotoDTO(row.getId(), row.getName(), row.getDescription(), downloadLink(row.getAlbumId(), row.getId()));
+    }
+}
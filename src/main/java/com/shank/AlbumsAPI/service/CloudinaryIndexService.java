@@ -0,0 +1,177 @@
+package com.shank.AlbumsAPI.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.shank.AlbumsAPI.model.CloudinaryAsset;
+import com.shank.AlbumsAPI.payload.cloudinary.CloudinaryPageDTO;
+import com.shank.AlbumsAPI.payload.cloudinary.CloudinaryResourceDTO;
+import com.shank.AlbumsAPI.repository.CloudinaryAssetRepository;
+import com.shank.AlbumsAPI.util.apputils.Cursor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the Cloudinary listing from a local index ({@link CloudinaryAsset}) with
+ * keyset pagination. Our upload and delete endpoints keep the index current, and
+ * a periodic reconcile walks the full remote listing to pick up changes made
+ * elsewhere.
+ *
+ * <p>Until the index has been populated, listings fall through to the admin API.
+ * Those pages return Cloudinary's own {@code next_cursor}, prefixed with
+ * {@link #REMOTE_CURSOR_PREFIX}, so a traversal that started remotely finishes
+ * remotely.
+ */
+@Service
+@Slf4j
+public class CloudinaryIndexService {
+
+    static final String REMOTE_CURSOR_PREFIX = "remote:";
+    static final int RECONCILE_PAGE_SIZE = 500;
+
+    private final CloudinaryAssetRepository cloudinaryAssetRepository;
+    private final CloudinaryService cloudinaryService;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile boolean ready;
+
+    CloudinaryIndexService(CloudinaryAssetRepository cloudinaryAssetRepository,
+                           CloudinaryService cloudinaryService,
+                           MeterRegistry meterRegistry) {
+        this.cloudinaryAssetRepository = cloudinaryAssetRepository;
+        this.cloudinaryService = cloudinaryService;
+        this.hits = meterRegistry.counter("cloudinary.list.cache", "result", "hit");
+        this.misses = meterRegistry.counter("cloudinary.list.cache", "result", "miss");
+    }
+
+    /** @throws IllegalArgumentException for a malformed cursor */
+    public CompletableFuture<CloudinaryPageDTO> list(String cursor, int limit) {
+        if (cursor != null && cursor.startsWith(REMOTE_CURSOR_PREFIX)) {
+            return listRemote(cursor.substring(REMOTE_CURSOR_PREFIX.length()), limit);
+        }
+        long afterId = Cursor.decode(cursor);
+        if (!isReady()) return listRemote(null, limit);
+
+        hits.increment();
+        // one extra row tells whether another page follows
+        List<CloudinaryAsset> rows = cloudinaryAssetRepository.findPageAfter(afterId, PageRequest.of(0, limit + 1));
+        boolean more = rows.size() > limit;
+        if (more) rows = rows.subList(0, limit);
+
+        List<CloudinaryResourceDTO> resources = rows.stream().map(CloudinaryIndexService::toResource).toList();
+        String nextCursor = more ? Cursor.encode(rows.get(rows.size() - 1).getId()) : null;
+        return CompletableFuture.completedFuture(new CloudinaryPageDTO(resources, nextCursor));
+    }
+
+    // call with the result of a successful upload
+    public void record(Map<?, ?> resource) {
+        upsert(resource, Instant.now());
+    }
+
+    public void remove(String publicId) {
+        cloudinaryAssetRepository.deleteByPublicIdInBulk(publicId);
+    }
+
+    @Scheduled(initialDelayString = "${cloudinary.index.initial-delay-ms:10000}",
+               fixedDelayString = "${cloudinary.index.reconcile-ms:900000}")
+    public void reconcile() {
+        // no finer than the column stores, or a rounded-down syncedAt reads as older than this walk
+        Instant started = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        int seen = 0;
+        try {
+            String nextCursor = null;
+            do {
+                Map<?, ?> page = cloudinaryService.listPage(nextCursor, RECONCILE_PAGE_SIZE).join();
+                for (Object resource : resources(page)) {
+                    upsert((Map<?, ?>) resource, started);
+                    seen++;
+                }
+                nextCursor = (String) page.get("next_cursor");
+            } while (nextCursor != null);
+        } catch (RuntimeException e) {
+            // a partial walk proves nothing about what is gone, so nothing is removed
+            log.warn("Cloudinary reconcile stopped after {} resources: {}", seen, e.getMessage());
+            return;
+        }
+
+        // rows written after the walk started carry a later syncedAt and are kept
+        int removed = cloudinaryAssetRepository.deleteNotSyncedSince(started);
+        ready = true;
+        log.info("Cloudinary index reconciled: {} resources, {} removed", seen, removed);
+    }
+
+    private boolean isReady() {
+        if (!ready && cloudinaryAssetRepository.count() > 0) ready = true;
+        return ready;
+    }
+
+    private CompletableFuture<CloudinaryPageDTO> listRemote(String remoteCursor, int limit) {
+        misses.increment();
+        return cloudinaryService.listPage(remoteCursor, limit).thenApply(page -> {
+            List<CloudinaryResourceDTO> resources = new ArrayList<>();
+            for (Object resource : resources(page)) {
+                resources.add(toResource(toAsset((Map<?, ?>) resource, new CloudinaryAsset())));
+            }
+            Object next = page.get("next_cursor");
+            return new CloudinaryPageDTO(resources, next == null ? null : REMOTE_CURSOR_PREFIX + next);
+        });
+    }
+
+    private void upsert(Map<?, ?> resource, Instant syncedAt) {
+        String publicId = (String) resource.get("public_id");
+        if (publicId == null) return;
+        CloudinaryAsset asset = cloudinaryAssetRepository.findByPublicId(publicId).orElseGet(CloudinaryAsset::new);
+        toAsset(resource, asset).setSyncedAt(syncedAt);
+        try {
+            cloudinaryAssetRepository.save(asset);
+        } catch (DataIntegrityViolationException e) {
+            // inserted concurrently by an upload or another node; that row is at least as fresh
+            log.debug("Cloudinary asset {} already indexed", publicId);
+        }
+    }
+
+    private static List<?> resources(Map<?, ?> page) {
+        Object resources = page.get("resources");
+        return resources instanceof List<?> list ? list : List.of();
+    }
+
+    private static CloudinaryAsset toAsset(Map<?, ?> resource, CloudinaryAsset asset) {
+        asset.setPublicId((String) resource.get("public_id"));
+        asset.setFormat((String) resource.get("format"));
+        asset.setResourceType((String) resource.get("resource_type"));
+        asset.setVersion(asLong(resource.get("version")));
+        asset.setBytes(asLong(resource.get("bytes")));
+        Long width = asLong(resource.get("width"));
+        Long height = asLong(resource.get("height"));
+        asset.setWidth(width == null ? null : width.intValue());
+        asset.setHeight(height == null ? null : height.intValue());
+        asset.setUrl((String) resource.get("url"));
+        asset.setSecureUrl((String) resource.get("secure_url"));
+        Object createdAt = resource.get("created_at");
+        asset.setCreatedAt(createdAt == null ? null : createdAt.toString());
+        return asset;
+    }
+
+    private static CloudinaryResourceDTO toResource(CloudinaryAsset asset) {
+        return new CloudinaryResourceDTO(asset.getPublicId(), asset.getFormat(), asset.getResourceType(),
+                asset.getVersion(), asset.getBytes(), asset.getWidth(), asset.getHeight(), asset.getUrl(),
+                asset.getSecureUrl(), asset.getCreatedAt());
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calls to Cloudinary, run on the bounded {@code cloudinaryExecutor} so a slow
+ * remote never holds a request thread. Each call completes within
+ * {@code cloudinary.request-timeout-seconds} or fails with a
+ * {@link java.util.concurrent.TimeoutException}; a full executor fails it with
+ * {@link TaskRejectedException}. A call that times out while still queued is
+ * cancelled; one already running finishes in the background.
+ *
+ * <p>Uploads are staged on disk and sent from the file. Files above
+ * {@code cloudinary.upload.chunk-threshold-bytes} use the SDK's chunked
+ * large-upload mode, so no upload is ever held on the heap as a whole. The staged
+ * file is removed by the upload task itself, or when the task never runs.
+ */
+@Service
+@Slf4j
+public class CloudinaryService {
+
+    public static final String FOLDER = "albumix_poc";
+
+    private final Cloudinary cloudinary;
+    private final ThreadPoolTaskExecutor cloudinaryExecutor;
+    private final long chunkThreshold;
+    private final int chunkSize;
+    private final long requestTimeoutSeconds;
+
+    private final AtomicLong bytesInFlight = new AtomicLong();
+    private final Timer uploadTimer;
+    private final Counter rejected;
+    private final Counter cancelled;
+
+    CloudinaryService(Cloudinary cloudinary,
+                      @Qualifier("cloudinaryExecutor") ThreadPoolTaskExecutor cloudinaryExecutor,
+                      MeterRegistry meterRegistry,
+                      @Value("${cloudinary.upload.chunk-threshold-bytes:8388608}") long chunkThreshold,
+                      @Value("${cloudinary.upload.chunk-size-bytes:6291456}") int chunkSize,
+                      @Value("${cloudinary.request-timeout-seconds:120}") long requestTimeoutSeconds) {
+        this.cloudinary = cloudinary;
+        this.cloudinaryExecutor = cloudinaryExecutor;
+        this.chunkThreshold = chunkThreshold;
+        this.chunkSize = chunkSize;
+        this.requestTimeoutSeconds = requestTimeoutSeconds;
+
+        Gauge.builder("cloudinary.upload.bytes.inflight", bytesInFlight, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("cloudinary.queue.depth", cloudinaryExecutor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        this.uploadTimer = Timer.builder("cloudinary.upload")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("cloudinary.rejected");
+        this.cancelled = meterRegistry.counter("cloudinary.cancelled");
+    }
+
+    /**
+     * Sends a file to Cloudinary. {@code onUploaded} gets the stored resource on the
+     * executor thread, also when the upload outlives the returned future's timeout,
+     * so a late upload is still recorded.
+     */
+    public CompletableFuture<Map<?, ?>> upload(MultipartFile file, String uploadedBy,
+                                               Consumer<Map<?, ?>> onUploaded) throws IOException {
+        // multipart parts are already on disk, so this is usually a rename
+        Path staged = AppUtil.get_staging_path();
+        file.transferTo(staged);
+        long size = Files.size(staged);
+
+        Map<?, ?> options = ObjectUtils.asMap(
+                "folder", FOLDER,
+                "resource_type", "image",
+                "uploaded_by", uploadedBy);
+
+        return submit(() -> {
+            bytesInFlight.addAndGet(size);
+            try {
+                Map<?, ?> uploaded = uploadTimer.recordCallable(() -> size > chunkThreshold
+                        ? cloudinary.uploader().uploadLarge(staged.toFile(), options, chunkSize)
+                        : cloudinary.uploader().upload(staged.toFile(), options));
+                onUploaded.accept(uploaded);
+                return uploaded;
+            } finally {
+                bytesInFlight.addAndGet(-size);
+                deleteQuietly(staged);
+            }
+        }, () -> deleteQuietly(staged));
+    }
+
+    public CompletableFuture<Map<?, ?>> destroy(String publicId) {
+        return submit(() -> cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap()), () -> {});
+    }
+
+    // one page of the admin listing; pass the previous page's next_cursor to continue
+    public CompletableFuture<Map<?, ?>> listPage(String nextCursor, int maxResults) {
+        Map<String, Object> options = new HashMap<>();
+        options.put("type", "upload");
+        options.put("prefix", FOLDER + "/");
+        options.put("max_results", maxResults);
+        if (nextCursor != null) options.put("next_cursor", nextCursor);
+        return submit(() -> cloudinary.api().resources(options), () -> {});
+    }
+
+    // notRun cleans up after a call that was rejected, or cancelled before it started
+    private <T> CompletableFuture<T> submit(Callable<T> call, Runnable notRun) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // claimed by whichever comes first: a worker starting the call, or the timeout
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<?> task;
+        try {
+            task = cloudinaryExecutor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) return;
+                try {
+                    result.complete(call.call());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            notRun.run();
+            result.completeExceptionally(e);
+            return result;
+        }
+        return result.orTimeout(requestTimeoutSeconds, TimeUnit.SECONDS).whenComplete((value, failure) -> {
+            if (failure instanceof TimeoutException && claimed.compareAndSet(false, true)) {
+                task.cancel(false);
+                cancelled.increment();
+                // frees its queue slot now rather than when a worker reaches it
+                cloudinaryExecutor.getThreadPoolExecutor().purge();
+                notRun.run();
+            }
+        });
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error("❌ Failed to delete staged upload: {}", path, e);
+        }
+    }
+}
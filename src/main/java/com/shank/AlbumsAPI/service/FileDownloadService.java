@@ -0,0 +1,297 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.shank.AlbumsAPI.config.RequestTimingFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes stored files to the response with HTTP validators and byte ranges.
+ *
+ * <p>Stored file names carry a random prefix and are never rewritten in place, so
+ * the ETag (derived from name, size and mtime) is a strong validator. Handles
+ * {@code If-None-Match}/{@code If-Modified-Since} (304), {@code If-Range}, single
+ * ranges and multiple ranges ({@code multipart/byteranges}). Ranges adding up to
+ * more than the content are refused with 416, as Spring's own resource handling
+ * does, so a request cannot make the same bytes go out many times over.
+ *
+ * <p>Whole files and single ranges are handed to Tomcat's sendfile support, which
+ * moves the bytes with {@code FileChannel.transferTo} without copying them through
+ * the heap. Without sendfile (other containers, or TLS terminated in Tomcat) the
+ * bytes go through {@code transferTo} on a channel wrapping the response stream.
+ * Content already in memory (mapped thumbnail segments) is written directly.
+ */
+@Service
+public class FileDownloadService {
+
+    public static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePrivate()
+            .immutable();
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // org.apache.catalina.Globals, kept as strings to avoid a Tomcat dependency
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DistributionSummary downloadBytes;
+    private final Timer timeToFirstByte;
+
+    FileDownloadService(MeterRegistry meterRegistry) {
+        this.downloadBytes = DistributionSummary.builder("photos.download.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        // from the request's arrival to its body starting (handed to sendfile or written)
+        this.timeToFirstByte = Timer.builder("photos.download.ttfb")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bytes to send: a stored file, or a region of a memory-mapped segment. The
+     * name, length and modification time make up the ETag.
+     */
+    public interface Content {
+        String name();
+
+        long length();
+
+        long lastModified();
+
+        // a file Tomcat can sendfile, or null
+        Path file();
+
+        void copyTo(OutputStream out, long position, long count) throws IOException;
+    }
+
+    public static Content of(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new FileContent(file, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    public static Content of(String name, ByteBuffer bytes, long lastModified) {
+        return new BufferContent(name, bytes, lastModified);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, Path file, String contentType,
+                      String downloadName, CacheControl cacheControl) throws IOException {
+        write(request, response, of(file), contentType, downloadName, cacheControl);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, Content content, String contentType,
+                      String downloadName, CacheControl cacheControl) throws IOException {
+        long startedAt = RequestTimingFilter.startedAt(request, System.nanoTime());
+        long length = content.length();
+        long lastModified = content.lastModified();
+        String etag = etag(content.name(), length, lastModified);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // sets ETag/Last-Modified, and 304/412 when a precondition applies
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) return;
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadName + "\"");
+        boolean head = HttpMethod.HEAD.matches(request.getMethod());
+
+        List<HttpRange> ranges = requestedRanges(request, etag, lastModified);
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!head) {
+                bodyStarts(startedAt, length);
+                send(request, response, content, 0, length);
+            }
+            return;
+        }
+
+        List<long[]> bounds = new ArrayList<>(ranges.size());
+        long requested = 0;
+        try {
+            for (HttpRange range : ranges) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                // a range starting at or past the end (or bytes=-0) selects nothing
+                if (start > end) throw new IllegalArgumentException("Range starts past the content");
+                bounds.add(new long[] {start, end});
+                requested += end - start + 1;
+            }
+        } catch (IllegalArgumentException unsatisfiable) {
+            notSatisfiable(response, length);
+            return;
+        }
+        // overlapping ranges such as bytes=0-,0-,... would multiply the response
+        if (requested > length) {
+            notSatisfiable(response, length);
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        if (bounds.size() == 1) {
+            long start = bounds.get(0)[0];
+            long end = bounds.get(0)[1];
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            response.setContentLengthLong(end - start + 1);
+            if (!head) {
+                bodyStarts(startedAt, end - start + 1);
+                send(request, response, content, start, end - start + 1);
+            }
+            return;
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<byte[]> partHeaders = new ArrayList<>(bounds.size());
+        long total = 0;
+        for (long[] bound : bounds) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(bound[0], bound[1], length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            total += partHeader.length + bound[1] - bound[0] + 1;
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        total += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(total);
+        if (head) return;
+
+        bodyStarts(startedAt, total);
+        OutputStream out = response.getOutputStream();
+        for (int i = 0; i < bounds.size(); i++) {
+            long[] bound = bounds.get(i);
+            out.write(partHeaders.get(i));
+            content.copyTo(out, bound[0], bound[1] - bound[0] + 1);
+        }
+        out.write(closing);
+    }
+
+    private static void notSatisfiable(HttpServletResponse response, long length) {
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+    }
+
+    private void bodyStarts(long startedAt, long bytes) {
+        timeToFirstByte.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        downloadBytes.record(bytes);
+    }
+
+    static String etag(String name, long length, long lastModified) {
+        String source = name + ":" + length + ":" + lastModified;
+        return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // Range is honoured only if If-Range is absent or still matches
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) return List.of();
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            long ifRangeDate;
+            try {
+                ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            } catch (IllegalArgumentException notADate) {
+                return List.of();
+            }
+            if (ifRangeDate == -1 || ifRangeDate / 1000 != lastModified / 1000) return List.of();
+        }
+
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException malformed) {
+            // invalid Range headers are ignored (RFC 9110 §14.2)
+            return List.of();
+        }
+    }
+
+    private static String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, Content content, long position,
+                      long count) throws IOException {
+        Path file = content.file();
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, position);
+            request.setAttribute(SENDFILE_END, position + count);
+            return;
+        }
+        content.copyTo(response.getOutputStream(), position, count);
+    }
+
+    private record FileContent(Path file, long length, long lastModified) implements Content {
+
+        @Override
+        public String name() {
+            return file.getFileName().toString();
+        }
+
+        @Override
+        public void copyTo(OutputStream out, long position, long count) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long end = position + count;
+                while (position < end) {
+                    long sent = channel.transferTo(position, end - position, target);
+                    if (sent <= 0) break;
+                    position += sent;
+                }
+            }
+        }
+    }
+
+    private record BufferContent(String name, ByteBuffer bytes, long lastModified) implements Content {
+
+        @Override
+        public long length() {
+            return bytes.remaining();
+        }
+
+        @Override
+        public Path file() {
+            return null;
+        }
+
+        @Override
+        public void copyTo(OutputStream out, long position, long count) throws IOException {
+            ByteBuffer region = bytes.duplicate();
+            region.position(region.position() + (int) position);
+            region.limit(region.position() + (int) count);
+            Channels.newChannel(out).write(region);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.shank.AlbumsAPI.service.FileDownloadService.Content;
+
+import lombok.extern.slf4j.Slf4j;
+
+/** One file per thumbnail, at its layout path. The default backend. */
+@Service
+@ConditionalOnProperty(name = "thumbnail.store", havingValue = "file", matchIfMissing = true)
+@Slf4j
+public class FileThumbnailStore implements ThumbnailStore {
+
+    @Override
+    public void write(Path location, byte[] data) throws IOException {
+        Files.createDirectories(location.getParent());
+        // readers never see a half-written file
+        Path partial = location.resolveSibling(location.getFileName() + ".part");
+        Files.write(partial, data);
+        Files.move(partial, location, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public boolean exists(Path location) {
+        return Files.exists(location);
+    }
+
+    @Override
+    public Content open(Path location) throws IOException {
+        return FileDownloadService.of(location);
+    }
+
+    @Override
+    public void delete(Path location) {
+        try {
+            Files.deleteIfExists(location);
+        } catch (IOException e) {
+            log.error("❌ Failed to delete thumbnail: {}", location, e);
+        }
+    }
+
+    @Override
+    public void deleteUnder(Path directory) {
+        // files live inside the directory itself, which its owner removes
+    }
+}
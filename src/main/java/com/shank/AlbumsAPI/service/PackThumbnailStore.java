@@ -0,0 +1,386 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.shank.AlbumsAPI.service.FileDownloadService.Content;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends thumbnails to large segment files instead of writing one file each.
+ *
+ * <p>Each segment is a sequence of records ({@code PUT} with the thumbnail bytes,
+ * or a {@code DELETE} tombstone), each with a CRC so a torn tail is detected and
+ * ignored. The offset index lives in memory and is rebuilt at startup by scanning
+ * the segments in order, later records winning. Segments are memory-mapped, so a
+ * read is an index lookup plus a slice of the mapping, with no open/stat/close.
+ *
+ * <p>Only the newest segment is written to: it is reopened for appends at startup,
+ * after anything past its last intact record is cleared, and a fresh one is
+ * started whenever it fills up. Sealed segments whose dead bytes (overwritten or deleted
+ * records) pass {@code thumbnail.pack.compact-ratio} are compacted in the
+ * background: live records are copied forward and the segment file is removed.
+ *
+ * <p>The index and the append position live in this process only, so a pack
+ * directory must have a single writer: with {@code thumbnail.store=pack}, nodes
+ * must not share {@code file.upload-dir} (use {@code file}, or one directory per
+ * node).
+ */
+@Service
+@ConditionalOnProperty(name = "thumbnail.store", havingValue = "pack")
+@Slf4j
+public class PackThumbnailStore implements ThumbnailStore {
+
+    private static final int MAGIC = 0x54484D42; // "THMB"
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    // magic, type, writtenAt, key length, data length, crc32(key + data)
+    private static final int HEADER_SIZE = 4 + 1 + 8 + 2 + 4 + 4;
+    private static final String SEGMENT_SUFFIX = ".pack";
+    private static final int CLEAR_PAGE = 4096;
+
+    private final Path root;
+    private final Path directory;
+    private final int segmentBytes;
+    private final double compactRatio;
+
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    // single writer: appends, index updates that depend on an append, and segment rolls
+    private final Object writeLock = new Object();
+    private volatile Segment active;
+
+    PackThumbnailStore(@Value("${file.upload-dir}") String uploadDir,
+                       @Value("${thumbnail.pack.segment-bytes:268435456}") int segmentBytes,
+                       @Value("${thumbnail.pack.compact-ratio:0.5}") double compactRatio,
+                       MeterRegistry meterRegistry) {
+        this.root = Paths.get(uploadDir);
+        this.directory = root.resolve("packs");
+        this.segmentBytes = segmentBytes;
+        this.compactRatio = compactRatio;
+
+        Gauge.builder("thumbnail.pack.entries", index, Map::size).register(meterRegistry);
+        Gauge.builder("thumbnail.pack.segments", segments, Map::size).register(meterRegistry);
+        Gauge.builder("thumbnail.pack.dead.bytes", segments,
+                s -> s.values().stream().mapToLong(segment -> segment.deadBytes.get()).sum())
+                .register(meterRegistry);
+    }
+
+    /** Where a record lives; {@code offset} is the start of the record, the data is its tail. */
+    private record Entry(int segment, int offset, int recordSize, int length, long writtenAt) {
+    }
+
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final AtomicLong deadBytes = new AtomicLong();
+        volatile int end;
+
+        Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(byte type, String key, int offset, int recordSize, int length, long writtenAt) throws IOException;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        int lastId = 0;
+        Segment newest = null;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            String name = file.getFileName().toString();
+            int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            // the newest segment takes further appends, unless segment-bytes has shrunk below it
+            boolean appendable = i == files.size() - 1 && Files.size(file) <= segmentBytes;
+            Segment segment = appendable ? mapSegment(id, file) : mapSealed(id, file);
+            segments.put(id, segment);
+            segment.end = scan(segment, segment.buffer.capacity(), (type, key, offset, recordSize, length, writtenAt) -> {
+                Entry previous = type == PUT
+                        ? index.put(key, new Entry(id, offset, recordSize, length, writtenAt))
+                        : index.remove(key);
+                if (type == DELETE) segment.deadBytes.addAndGet(recordSize);
+                markDead(previous);
+            });
+            lastId = Math.max(lastId, id);
+            if (appendable) newest = segment;
+        }
+
+        synchronized (writeLock) {
+            if (newest != null) {
+                clearTail(newest);
+                active = newest;
+            } else {
+                active = createSegment(lastId + 1);
+            }
+        }
+        log.info("📦 Thumbnail packs opened: {} segments, {} entries", segments.size(), index.size());
+    }
+
+    @PreDestroy
+    void close() {
+        synchronized (writeLock) {
+            if (active != null) active.buffer.force();
+            for (Segment segment : segments.values()) {
+                try {
+                    segment.channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close segment {}: {}", segment.path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(Path location, byte[] data) throws IOException {
+        String key = key(location);
+        long now = System.currentTimeMillis();
+        synchronized (writeLock) {
+            Entry entry = append(PUT, key, ByteBuffer.wrap(data), now);
+            markDead(index.put(key, entry));
+        }
+    }
+
+    @Override
+    public boolean exists(Path location) {
+        return index.containsKey(key(location));
+    }
+
+    @Override
+    public Content open(Path location) throws IOException {
+        String key = key(location);
+        // a compaction may retire the segment between the lookup and the read
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Entry entry = index.get(key);
+            if (entry == null) break;
+            Segment segment = segments.get(entry.segment());
+            if (segment == null) continue;
+            return FileDownloadService.of(location.getFileName().toString(), data(segment, entry), entry.writtenAt());
+        }
+        throw new NoSuchFileException(location.toString());
+    }
+
+    @Override
+    public void delete(Path location) {
+        delete(key(location));
+    }
+
+    @Override
+    public void deleteUnder(Path directory) {
+        String prefix = key(directory) + "/";
+        for (String key : index.keySet()) {
+            if (key.startsWith(prefix)) delete(key);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${thumbnail.pack.compact-interval-ms:300000}",
+               fixedDelayString = "${thumbnail.pack.compact-interval-ms:300000}")
+    public void compact() {
+        for (Segment segment : segments.values()) {
+            if (segment == active) continue;
+            int end = segment.end;
+            if (end > 0 && segment.deadBytes.get() < end * compactRatio) continue;
+            try {
+                compact(segment);
+            } catch (IOException e) {
+                log.error("❌ Failed to compact segment {}", segment.path, e);
+            }
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        long reclaimed = segment.deadBytes.get();
+        scan(segment, segment.end, (type, key, offset, recordSize, length, writtenAt) -> {
+            synchronized (writeLock) {
+                if (type == PUT) {
+                    Entry current = index.get(key);
+                    if (current == null || current.segment() != segment.id || current.offset() != offset) return;
+                    index.put(key, append(PUT, key, data(segment, current), writtenAt));
+                } else if (!index.containsKey(key) && segments.firstKey() < segment.id) {
+                    // an older segment may still hold the record this tombstone hides
+                    append(DELETE, key, ByteBuffer.allocate(0), writtenAt);
+                }
+            }
+        });
+
+        synchronized (writeLock) {
+            // the copies must reach the disk before the segment holding the originals goes
+            active.buffer.force();
+        }
+        segments.remove(segment.id);
+        segment.channel.close();
+        // open slices stay valid: the mapping outlives the file on POSIX systems
+        Files.deleteIfExists(segment.path);
+        log.info("📦 Compacted thumbnail segment {}: {} dead bytes reclaimed", segment.path.getFileName(), reclaimed);
+    }
+
+    private void delete(String key) {
+        synchronized (writeLock) {
+            Entry previous = index.remove(key);
+            if (previous == null) return;
+            markDead(previous);
+            try {
+                Entry tombstone = append(DELETE, key, ByteBuffer.allocate(0), System.currentTimeMillis());
+                active.deadBytes.addAndGet(tombstone.recordSize());
+            } catch (IOException e) {
+                log.error("❌ Failed to write tombstone for {}", key, e);
+            }
+        }
+    }
+
+    // caller holds writeLock
+    private Entry append(byte type, String key, ByteBuffer data, long writtenAt) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = data.remaining();
+        int recordSize = HEADER_SIZE + keyBytes.length + length;
+        if (recordSize > segmentBytes) throw new IOException("Thumbnail larger than a segment: " + key);
+        if (active.end + recordSize > segmentBytes) {
+            active.buffer.force();
+            active = createSegment(active.id + 1);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(data.duplicate());
+
+        int offset = active.end;
+        ByteBuffer target = active.buffer.duplicate();
+        target.position(offset);
+        target.putInt(MAGIC)
+                .put(type)
+                .putLong(writtenAt)
+                .putShort((short) keyBytes.length)
+                .putInt(length)
+                .putInt((int) crc.getValue())
+                .put(keyBytes)
+                .put(data.duplicate());
+        active.end = offset + recordSize;
+        return new Entry(active.id, offset, recordSize, length, writtenAt);
+    }
+
+    // caller holds writeLock (or runs before the store is published)
+    private Segment createSegment(int id) throws IOException {
+        Path path = directory.resolve(String.format("%08d", id) + SEGMENT_SUFFIX);
+        Files.createFile(path);
+        Segment segment = mapSegment(id, path);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    // the file is sparse until written; the zeroed tail ends the scan on recovery
+    private Segment mapSegment(int id, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+    }
+
+    private static Segment mapSealed(int id, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+
+    /**
+     * Zeroes what a crash left past the last intact record of a reopened segment,
+     * page by page up to the first page that is already zero, so the torn bytes
+     * cannot be read back as part of the records appended after them.
+     */
+    private static void clearTail(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = segment.end;
+        boolean cleared = false;
+        while (position < buffer.capacity() && !cleared) {
+            int pageEnd = Math.min(buffer.capacity(), (position / CLEAR_PAGE + 1) * CLEAR_PAGE);
+            cleared = true;
+            for (int i = position; i < pageEnd; i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                    cleared = false;
+                }
+            }
+            position = pageEnd;
+        }
+    }
+
+    // reads records up to the first torn or zeroed one; returns where it stopped
+    private static int scan(Segment segment, int limit, RecordVisitor visitor) throws IOException {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        while (position + HEADER_SIZE <= limit) {
+            buffer.position(position);
+            if (buffer.getInt() != MAGIC) break;
+            byte type = buffer.get();
+            long writtenAt = buffer.getLong();
+            int keyLength = Short.toUnsignedInt(buffer.getShort());
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            int recordSize = HEADER_SIZE + keyLength + length;
+            if (length < 0 || position + recordSize > limit) break;
+
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(keyBytes);
+            CRC32 crc = new CRC32();
+            crc.update(keyBytes);
+            crc.update(buffer.slice(buffer.position(), length));
+            if ((int) crc.getValue() != checksum) break;
+
+            visitor.visit(type, new String(keyBytes, StandardCharsets.UTF_8), position, recordSize, length, writtenAt);
+            position += recordSize;
+        }
+        return position;
+    }
+
+    private static ByteBuffer data(Segment segment, Entry entry) {
+        return segment.buffer.slice(entry.offset() + entry.recordSize() - entry.length(), entry.length());
+    }
+
+    private void markDead(Entry entry) {
+        if (entry == null) return;
+        Segment segment = segments.get(entry.segment());
+        if (segment != null) segment.deadBytes.addAndGet(entry.recordSize());
+    }
+
+    // layout path relative to the upload directory, with '/' separators
+    private String key(Path location) {
+        return root.relativize(location).toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,134 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.model.PhotoBlob;
+import com.shank.AlbumsAPI.repository.PhotoBlobRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reference counting for content-addressed originals. Both operations hold the
+ * blob row lock while touching the filesystem, so a blob cannot be removed by
+ * its last release while another upload is attaching to it. A filesystem failure
+ * rolls the row change back, so no reference outlives a file that was never moved.
+ */
+@Service
+@Slf4j
+public class PhotoBlobService {
+
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private ThumbnailStore thumbnailStore;
+
+    /**
+     * Adds a reference to {@code hash}. The staged file becomes the blob if it is
+     * the first copy and is deleted otherwise. Two first uploads racing on the
+     * same hash make one insert fail on the primary key; callers retry once.
+     *
+     * @return true when the blob was created by this call
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public boolean acquire(String hash, Path staged, long byteSize) throws IOException {
+        Optional<PhotoBlob> existing = photoBlobRepository.findForUpdate(hash);
+        if (existing.isPresent()) {
+            PhotoBlob blob = existing.get();
+            blob.setRefCount(blob.getRefCount() + 1);
+            Files.deleteIfExists(staged);
+            return false;
+        }
+
+        photoBlobRepository.saveAndFlush(new PhotoBlob(hash, 1, byteSize));
+        Files.move(staged, AppUtil.get_blob_upload_path(hash, PhotoStorageService.PHOTOS_FOLDER_NAME),
+                StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * Attaches a photo from the per-album layout to the blob of its content, given
+     * a staged copy of its original. The reference and the photo's hash commit
+     * together or not at all; the caller removes the old files afterwards.
+     *
+     * @return true when the blob was created by this call
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public boolean adopt(Photo photo, String hash, Path staged, long byteSize) throws IOException {
+        photo.setContentHash(hash);
+        if (photo.getByteSize() == null) photo.setByteSize(byteSize);
+        photoRepository.saveAndFlush(photo);
+        // last, so a failed move rolls back both rows
+        return acquire(hash, staged, byteSize);
+    }
+
+    /**
+     * Drops a reference to {@code hash}, removing the original and all of its
+     * thumbnails when it was the last one.
+     *
+     * @return true when the blob was removed
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public boolean release(String hash) {
+        Optional<PhotoBlob> existing = photoBlobRepository.findForUpdate(hash);
+        if (existing.isEmpty()) return false;
+
+        PhotoBlob blob = existing.get();
+        if (blob.getRefCount() > 1) {
+            blob.setRefCount(blob.getRefCount() - 1);
+            return false;
+        }
+
+        remove(blob);
+        return true;
+    }
+
+    /**
+     * Removes {@code hash} if bulk deletes have left it without references. Safe
+     * to repeat: a blob re-acquired in the meantime is left alone.
+     *
+     * @return true when the blob was removed
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public boolean sweep(String hash) {
+        Optional<PhotoBlob> existing = photoBlobRepository.findForUpdate(hash);
+        if (existing.isEmpty() || existing.get().getRefCount() > 0) return false;
+
+        remove(existing.get());
+        return true;
+    }
+
+    private void remove(PhotoBlob blob) {
+        photoBlobRepository.delete(blob);
+        photoBlobRepository.flush();
+        deleteQuietly(AppUtil.get_blob_path(blob.getHash(), PhotoStorageService.PHOTOS_FOLDER_NAME));
+        for (String folder : thumbnailService.getThumbnailFolders()) {
+            thumbnailStore.delete(AppUtil.get_blob_path(blob.getHash(), folder));
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error("❌ Failed to delete blob file: {}", path, e);
+        }
+    }
+}
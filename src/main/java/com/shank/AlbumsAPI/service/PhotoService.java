@@ -23,6 +23,11 @@ public class PhotoService {
         return photoRepository.save(photo);
     }
 
+    // one transaction; inserts are sent in JDBC batches (hibernate.jdbc.batch_size)
+    public List<Photo> saveAll(List<Photo> photos) {
+        return photoRepository.saveAll(photos);
+    }
+
     public Optional<Photo> findById(long id) {
         return photoRepository.findById(id);
     }
@@ -31,6 +36,10 @@ public class PhotoService {
         return photoRepository.findByAlbum_id(id);
     }
 
+    public List<Photo> findNotContentAddressed() {
+        return photoRepository.findByContentHashIsNull();
+    }
+
     public void delete(@NonNull Photo photo) {
         photoRepository.delete(photo);
     }
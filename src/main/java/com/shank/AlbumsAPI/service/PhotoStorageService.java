@@ -0,0 +1,90 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.service.FileDownloadService.Content;
+import com.shank.AlbumsAPI.service.ThumbnailService.ThumbnailTarget;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import com.shank.AlbumsAPI.util.constants.ImageType;
+
+/**
+ * Where a photo's original and thumbnails live. Photos with a {@code contentHash}
+ * use the shared blob layout; older photos keep the per-album layout
+ * {@code UPLOAD_DIR/<albumId>/<folder>/<fileName>} until migrated.
+ */
+@Service
+public class PhotoStorageService {
+
+    public static final String PHOTOS_FOLDER_NAME = "photos";
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private PhotoBlobService photoBlobService;
+
+    @Autowired
+    private ThumbnailStore thumbnailStore;
+
+    public Path path(Photo photo, String folderName) {
+        if (photo.getContentHash() != null)
+            return AppUtil.get_blob_path(photo.getContentHash(), folderName);
+        return AppUtil.get_photo_path(photo.getFileName(), folderName, photo.getAlbum().getId());
+    }
+
+    public void generateThumbnails(Photo photo, ImageType imageType) {
+        thumbnailService.generateThumbnails(path(photo, PHOTOS_FOLDER_NAME), imageType.getFormatName(),
+                renderKey(photo), target(photo));
+    }
+
+    // thumbnails come from the configured store, originals are always plain files
+    public Content open(Photo photo, String folderName) throws IOException {
+        Path location = path(photo, folderName);
+        if (PHOTOS_FOLDER_NAME.equals(folderName)) return FileDownloadService.of(location);
+        return thumbnailStore.open(location);
+    }
+
+    // renders (or waits for) the thumbnails of a photo whose rendition is missing
+    public void ensureThumbnail(Photo photo, Path expected) throws IOException {
+        if (thumbnailStore.exists(expected)) return;
+        Path original = path(photo, PHOTOS_FOLDER_NAME);
+        ImageType imageType = ImageType.fromContentType(photo.getContentType());
+        if (imageType == null && Files.exists(original)) imageType = ImageType.detect(original);
+        if (imageType == null) return;
+        thumbnailService.renderNow(original, imageType.getFormatName(), renderKey(photo), target(photo), expected);
+    }
+
+    // call after the photo row is deleted
+    public void delete(Photo photo) {
+        if (photo.getContentHash() != null) {
+            photoBlobService.release(photo.getContentHash());
+            return;
+        }
+        long albumId = photo.getAlbum().getId();
+        AppUtil.delete_photo_from_path(photo.getFileName(), PHOTOS_FOLDER_NAME, albumId);
+        for (String folder : thumbnailService.getThumbnailFolders())
+            thumbnailStore.delete(AppUtil.get_photo_path(photo.getFileName(), folder, albumId));
+    }
+
+    private String renderKey(Photo photo) {
+        return photo.getContentHash() != null
+                ? photo.getContentHash()
+                : photo.getAlbum().getId() + "/" + photo.getFileName();
+    }
+
+    private ThumbnailTarget target(Photo photo) {
+        if (photo.getContentHash() != null) {
+            String hash = photo.getContentHash();
+            return folder -> AppUtil.get_blob_path(hash, folder);
+        }
+        String fileName = photo.getFileName();
+        long albumId = photo.getAlbum().getId();
+        return folder -> AppUtil.get_photo_path(fileName, folder, albumId);
+    }
+}
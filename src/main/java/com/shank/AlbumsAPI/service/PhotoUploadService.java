@@ -0,0 +1,202 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import com.shank.AlbumsAPI.util.constants.ImageType;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Streams uploaded parts to disk through a fixed-size buffer.
+ *
+ * <p>Heap held per in-flight upload is bounded by {@link #BUFFER_SIZE} and does not
+ * depend on the file size: the part is read from the container's (disk-backed)
+ * multipart storage, the image type is sniffed from the first bytes of that same
+ * buffer, and the remaining bytes are copied chunk by chunk. Byte size and pixel
+ * dimensions (read from the image header) are returned for the {@code Photo} row.
+ *
+ * <p>The SHA-256 of the content is computed while streaming into a staging file,
+ * which then becomes the shared blob for that hash, or is dropped when the same
+ * bytes are already stored.
+ */
+@Service
+public class PhotoUploadService {
+
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PhotoBlobService photoBlobService;
+    private final int parallelism;
+
+    private final DistributionSummary uploadBytes;
+    private final Timer storedTimer;
+    private final Timer failedTimer;
+
+    PhotoUploadService(PhotoBlobService photoBlobService,
+                       MeterRegistry meterRegistry,
+                       @Value("${albums.upload.parallelism:8}") int parallelism) {
+        this.photoBlobService = photoBlobService;
+        this.parallelism = parallelism;
+        this.uploadBytes = DistributionSummary.builder("photos.upload.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.storedTimer = fileTimer(meterRegistry, "stored");
+        this.failedTimer = fileTimer(meterRegistry, "failed");
+    }
+
+    private static Timer fileTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("photos.upload.file")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** {@code created} is false when the bytes were already stored (and thumbnailed). */
+    public record StoredUpload(ImageType type, long byteSize, int width, int height, String hash, boolean created) {}
+
+    /** Outcome of one file of a batch: {@code upload} on success, {@code error} otherwise. */
+    public record BatchItem(MultipartFile file, StoredUpload upload, Throwable error) {}
+
+    /**
+     * Stores the files concurrently, one virtual thread per file with at most
+     * {@code albums.upload.parallelism} of them storing at once, and returns the
+     * outcomes in input order. Returns only once every file is done.
+     */
+    public List<BatchItem> storeAll(MultipartFile[] files) {
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<StoredUpload>> futures = new ArrayList<>(files.length);
+        // closing the executor joins every task, so none outlives the request
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile file : files) {
+                futures.add(scope.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return store(file);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<BatchItem> items = new ArrayList<>(files.length);
+        for (int i = 0; i < files.length; i++) {
+            Future<StoredUpload> future = futures.get(i);
+            items.add(future.state() == Future.State.SUCCESS
+                    ? new BatchItem(files[i], future.resultNow(), null)
+                    : new BatchItem(files[i], null, future.exceptionNow()));
+        }
+        return items;
+    }
+
+    // timed from the first byte read to the blob being in place
+    public StoredUpload store(MultipartFile file) throws IOException {
+        Timer.Sample sample = Timer.start();
+        boolean stored = false;
+        Path staged = AppUtil.get_staging_path();
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int head = in.readNBytes(buffer, 0, ImageType.MAGIC_LENGTH);
+            ImageType type = ImageType.detect(buffer, head);
+            if (type == null) {
+                throw new IllegalArgumentException("Unsupported image type: " + file.getOriginalFilename());
+            }
+
+            MessageDigest digest = sha256();
+            long byteSize = head;
+            try (OutputStream out = Files.newOutputStream(staged)) {
+                out.write(buffer, 0, head);
+                digest.update(buffer, 0, head);
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    digest.update(buffer, 0, read);
+                    byteSize += read;
+                }
+            }
+
+            int[] dimensions = readDimensions(staged);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            boolean created = acquire(hash, staged, byteSize);
+            uploadBytes.record(byteSize);
+            stored = true;
+            return new StoredUpload(type, byteSize, dimensions[0], dimensions[1], hash, created);
+        } finally {
+            sample.stop(stored ? storedTimer : failedTimer);
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    // one retry when a concurrent upload of the same bytes inserted the blob first
+    private boolean acquire(String hash, Path staged, long byteSize) throws IOException {
+        try {
+            return photoBlobService.acquire(hash, staged, byteSize);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            return photoBlobService.acquire(hash, staged, byteSize);
+        }
+    }
+
+    // content hash of a file already on disk (used by the blob migration)
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // header-only read, the raster is not decoded
+    private int[] readDimensions(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unreadable image: " + file.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new int[] {reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
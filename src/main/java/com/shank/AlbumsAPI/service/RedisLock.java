@@ -0,0 +1,39 @@
+package com.shank.AlbumsAPI.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived mutual exclusion across nodes ({@code SET NX PX}). The lock expires
+ * on its own, so a crashed holder blocks others for at most its ttl; release only
+ * deletes the key while it still holds the caller's token.
+ */
+@Component
+public class RedisLock {
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    RedisLock(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // the token to release with, or null when another caller holds the lock
+    public String tryAcquire(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, token, ttl)) ? token : null;
+    }
+
+    public void release(String key, String token) {
+        stringRedisTemplate.execute(RELEASE, List.of(key), token);
+    }
+}
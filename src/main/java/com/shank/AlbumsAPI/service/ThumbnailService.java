@@ -1,42 +1,294 @@
 package com.shank.AlbumsAPI.service;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.imgscalr.Scalr;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
-import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
+/**
+ * Renders thumbnails on the dedicated {@code thumbnailExecutor}. Failed renders
+ * are retried with exponential backoff up to {@code thumbnail.retry.max-attempts}.
+ *
+ * <p>Every configured rendition ({@code thumbnail.renditions}) comes from a single
+ * decode of the original, each size resized from the next larger one. The
+ * {@link #DEFAULT_SIZE} rendition keeps the historical {@code thumbnails} folder;
+ * the others live next to it in {@code thumbnails_<size>}.
+ *
+ * <p>Background jobs and on-demand renders ({@link #renderNow}) share one in-flight
+ * registry keyed by stored file, so a photo is never decoded twice concurrently: later
+ * callers wait on the render already in progress.
+ */
 @Service
+@Slf4j
 public class ThumbnailService {
 
-    @Async
-    public void generateThumbnail(
-            byte[] file,
-            String contentType,
-            String final_photo_name,
-            long album_id,
-            int thumbnailWidth) {
+    public static final String THUMBNAIL_FOLDER_NAME = "thumbnails";
+    public static final int DEFAULT_SIZE = 300;
 
-        try {
+    private final ThumbnailStore thumbnailStore;
+    private final ThreadPoolTaskExecutor thumbnailExecutor;
+    private final ThreadPoolTaskScheduler retryScheduler;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    // descending, so each rendition cascades from the previous one
+    private final int[] renditions;
+    private final long onDemandTimeoutMillis;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer renderTimer;
+    private final Timer decodeTimer;
+    private final Timer resizeTimer;
+    private final Timer encodeTimer;
+    private final Timer writeTimer;
+    private final Counter failures;
+    private final Counter retries;
 
-            BufferedImage image = ImageIO.read(new java.io.ByteArrayInputStream(file));
-            BufferedImage thumbImg = Scalr.resize(image,
-                    Scalr.Method.AUTOMATIC, Scalr.Mode.AUTOMATIC,
-                    thumbnailWidth, Scalr.OP_ANTIALIAS);
+    ThumbnailService(ThumbnailStore thumbnailStore,
+                     @Qualifier("thumbnailExecutor") ThreadPoolTaskExecutor thumbnailExecutor,
+                     @Qualifier("thumbnailRetryScheduler") ThreadPoolTaskScheduler retryScheduler,
+                     MeterRegistry meterRegistry,
+                     @Value("${thumbnail.retry.max-attempts:3}") int maxAttempts,
+                     @Value("${thumbnail.retry.backoff-ms:500}") long backoffMillis,
+                     @Value("${thumbnail.renditions:150,300,1024}") int[] renditions,
+                     @Value("${thumbnail.on-demand.timeout-ms:10000}") long onDemandTimeoutMillis) {
+        this.thumbnailStore = thumbnailStore;
+        this.thumbnailExecutor = thumbnailExecutor;
+        this.retryScheduler = retryScheduler;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.onDemandTimeoutMillis = onDemandTimeoutMillis;
+        this.renditions = IntStream.concat(Arrays.stream(renditions), IntStream.of(DEFAULT_SIZE))
+                .filter(size -> size > 0)
+                .distinct()
+                .boxed()
+                .sorted(Comparator.reverseOrder())
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.renderTimer = Timer.builder("thumbnail.render")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.decodeTimer = stageTimer(meterRegistry, "decode");
+        this.resizeTimer = stageTimer(meterRegistry, "resize");
+        this.encodeTimer = stageTimer(meterRegistry, "encode");
+        this.writeTimer = stageTimer(meterRegistry, "write");
+        this.failures = meterRegistry.counter("thumbnail.failures");
+        this.retries = meterRegistry.counter("thumbnail.retries");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("thumbnail.stage")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-            File thumbnail_location = new File(
-                    AppUtil.get_photo_upload_path(final_photo_name, "thumbnails", album_id));
+    /** Resolves the layout path of a photo's rendition in a folder; the store decides where it really goes. */
+    @FunctionalInterface
+    public interface ThumbnailTarget {
+        Path resolve(String folderName);
+    }
+
+    public void generateThumbnails(
+            Path source,
+            String formatName,
+            String key,
+            ThumbnailTarget target) {
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, done) != null) return;
+
+        submit(() -> render(source, formatName, target), key, done, 1);
+    }
 
-            ImageIO.write(thumbImg, contentType.split("/")[1], thumbnail_location);
+    /**
+     * Renders the thumbnails of a photo on the calling thread when {@code expected}
+     * is missing, or waits for the render already in flight for that photo.
+     * Failures are logged; callers check the file afterwards.
+     */
+    public void renderNow(Path source, String formatName, String key, ThumbnailTarget target, Path expected) {
+        if (thumbnailStore.exists(expected)) return;
 
-            System.out.println("Thumbnail generated asynchronously");
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(key, mine);
 
+        if (existing != null) {
+            try {
+                existing.get(onDemandTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.debug("Waiting for thumbnail {} failed: {}", key, e.getMessage());
+            }
+            return;
+        }
+
+        try {
+            // a render may have finished between the exists check and the registration
+            if (!thumbnailStore.exists(expected)) {
+                renderTimer.recordCallable(() -> {
+                    render(source, formatName, target);
+                    return null;
+                });
+            }
+            mine.complete(null);
         } catch (Exception e) {
-            e.printStackTrace();
+            failures.increment();
+            log.warn("On-demand thumbnail failed for {}: {}", key, e.getMessage());
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public static String folderFor(int size) {
+        return size == DEFAULT_SIZE ? THUMBNAIL_FOLDER_NAME : THUMBNAIL_FOLDER_NAME + "_" + size;
+    }
+
+    public List<String> getThumbnailFolders() {
+        return Arrays.stream(renditions).mapToObj(ThumbnailService::folderFor).toList();
+    }
+
+    // smallest rendition at least as large as requested, else the largest one
+    public int resolveSize(Integer requested) {
+        if (requested == null) return DEFAULT_SIZE;
+        int best = renditions[0];
+        for (int size : renditions) {
+            if (size >= requested) best = size;
         }
+        return best;
+    }
+
+    private void submit(RenderJob job, String key, CompletableFuture<Void> done, int attempt) {
+        try {
+            execute(job, key, done, attempt);
+        } catch (TaskRejectedException shutDown) {
+            // the render pool is gone; fail the job instead of leaving its waiters hanging
+            failures.increment();
+            log.warn("Thumbnail dropped for {} at shutdown", key);
+            finish(key, done, shutDown);
+        }
+    }
+
+    private void execute(RenderJob job, String key, CompletableFuture<Void> done, int attempt) {
+        thumbnailExecutor.execute(() -> {
+            try {
+                renderTimer.recordCallable(() -> {
+                    job.run();
+                    return null;
+                });
+                finish(key, done, null);
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failures.increment();
+                    log.error("Thumbnail failed for {} after {} attempts", key, attempt, e);
+                    finish(key, done, e);
+                    return;
+                }
+                retries.increment();
+                long delay = backoffMillis << (attempt - 1);
+                log.warn("Thumbnail attempt {} failed for {}, retrying in {} ms: {}", attempt, key, delay, e.getMessage());
+                try {
+                    retryScheduler.schedule(() -> submit(job, key, done, attempt + 1), Instant.now().plus(Duration.ofMillis(delay)));
+                } catch (TaskRejectedException shuttingDown) {
+                    failures.increment();
+                    finish(key, done, e);
+                }
+            }
+        });
+    }
+
+    private void finish(String key, CompletableFuture<Void> done, Exception failure) {
+        inFlight.remove(key, done);
+        if (failure == null) done.complete(null);
+        else done.completeExceptionally(failure);
+    }
+
+    // each stage is timed on its own, so a slow render shows where the time went
+    private void render(Path source, String formatName, ThumbnailTarget target) throws IOException {
+        long started = System.nanoTime();
+        BufferedImage current = readSubsampled(source, renditions[0]);
+        started = lap(decodeTimer, started);
+
+        for (int size : renditions) {
+            // never upscale: small originals are stored as-is
+            if (Math.max(current.getWidth(), current.getHeight()) > size) {
+                current = Scalr.resize(current,
+                        Scalr.Method.AUTOMATIC, Scalr.Mode.AUTOMATIC,
+                        size, Scalr.OP_ANTIALIAS);
+                started = lap(resizeTimer, started);
+            }
+
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            if (!ImageIO.write(current, formatName, encoded)) {
+                throw new IOException("No image writer for " + formatName);
+            }
+            started = lap(encodeTimer, started);
+            thumbnailStore.write(target.resolve(folderFor(size)), encoded.toByteArray());
+            started = lap(writeTimer, started);
+        }
+    }
+
+    private static long lap(Timer timer, long started) {
+        long now = System.nanoTime();
+        timer.record(now - started, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Decodes the stored file with source subsampling so the decoded raster is at
+     * most about twice the target size on its longest side, whatever the
+     * resolution of the original.
+     */
+    static BufferedImage readSubsampled(Path source, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("No image reader for " + source.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (targetSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RenderJob {
+        void run() throws Exception;
     }
 }
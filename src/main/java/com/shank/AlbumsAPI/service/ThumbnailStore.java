@@ -0,0 +1,32 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import com.shank.AlbumsAPI.service.FileDownloadService.Content;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+
+/**
+ * Storage backend for rendered thumbnails, chosen with {@code thumbnail.store}.
+ * Thumbnails are addressed by the path they have in the one-file-per-image layout
+ * ({@link AppUtil#get_blob_path}, {@link AppUtil#get_photo_path}); backends that do
+ * not use that layout treat the path as a key.
+ *
+ * @see FileThumbnailStore
+ * @see PackThumbnailStore
+ */
+public interface ThumbnailStore {
+
+    void write(Path location, byte[] data) throws IOException;
+
+    boolean exists(Path location);
+
+    /** @throws NoSuchFileException when nothing is stored at {@code location} */
+    Content open(Path location) throws IOException;
+
+    void delete(Path location);
+
+    /** Deletes everything stored under {@code directory}, e.g. a deleted album. */
+    void deleteUnder(Path directory);
+}
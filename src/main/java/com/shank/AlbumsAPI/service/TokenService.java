@@ -6,18 +6,28 @@ import java.util.stream.Collectors;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Service;
 
+import com.nimbusds.jose.jwk.JWK;
+import com.shank.AlbumsAPI.security.AccountPrincipal;
+import com.shank.AlbumsAPI.security.SigningKeyStore;
+
 @Service
 public class TokenService {
+
+    public static final String ACCOUNT_ID_CLAIM = "account_id";
     
     private final JwtEncoder encoder;
+    private final SigningKeyStore signingKeys;
 
-    public TokenService(JwtEncoder encoder) {
+    public TokenService(JwtEncoder encoder, SigningKeyStore signingKeys) {
         this.encoder = encoder;
+        this.signingKeys = signingKeys;
     }
 
     public String generateToken(Authentication authentication) {
@@ -25,13 +35,20 @@ public class TokenService {
         String scope = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(" "));
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
                 .issuer("self")
                 .issuedAt(now)
                 .expiresAt(now.plus(1, ChronoUnit.HOURS))
                 .subject(authentication.getName())
-                .claim("scope", scope)
+                .claim("scope", scope);
+        if (authentication.getPrincipal() instanceof AccountPrincipal principal) {
+            claims.claim(ACCOUNT_ID_CLAIM, principal.getAccountId());
+        }
+        // the kid tells every node which stored key verifies this token
+        JWK key = signingKeys.signingKey();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.from(key.getAlgorithm().getName()))
+                .keyId(key.getKeyID())
                 .build();
-        return this.encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        return this.encoder.encode(JwtEncoderParameters.from(header, claims.build())).getTokenValue();
     }
 }
@@ -6,6 +6,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import javax.imageio.ImageIO;
 
@@ -24,6 +27,10 @@ public class AppUtil {
 
     private static String UPLOAD_DIR;
 
+    // album directories are numeric, so these cannot collide with them
+    private static final String BLOBS_DIR = "blobs";
+    private static final String STAGING_DIR = "tmp";
+
     // ✅ Safe static injection
     @Value("${file.upload-dir}")
     public void setUploadDir(String uploadDir) {
@@ -48,6 +55,34 @@ public class AppUtil {
                 .toString();
     }
 
+    // ===============================
+    // 📍 Resolve stored path (no I/O)
+    // ===============================
+    public static Path get_photo_path(String fileName, String folderName, long albumId) {
+        return Paths.get(UPLOAD_DIR, String.valueOf(albumId), folderName, fileName);
+    }
+
+    // ===============================
+    // 🧬 Content-addressed blobs
+    // ===============================
+    // UPLOAD_DIR/blobs/<folder>/<first two hex chars>/<sha-256>
+    public static Path get_blob_path(String hash, String folderName) {
+        return Paths.get(UPLOAD_DIR, BLOBS_DIR, folderName, hash.substring(0, 2), hash);
+    }
+
+    public static Path get_blob_upload_path(String hash, String folderName) throws IOException {
+        Path blobPath = get_blob_path(hash, folderName);
+        Files.createDirectories(blobPath.getParent());
+        return blobPath;
+    }
+
+    // uploads are staged here until their hash is known
+    public static Path get_staging_path() throws IOException {
+        Path stagingDir = Paths.get(UPLOAD_DIR, STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        return stagingDir.resolve(UUID.randomUUID().toString());
+    }
+
     // ===============================
     // 🗑 Delete photo
     // ===============================
@@ -62,6 +97,25 @@ public class AppUtil {
         }
     }
 
+    // ===============================
+    // 🗑 Delete album directory (legacy layout)
+    // ===============================
+    public static Path get_album_path(long albumId) {
+        return Paths.get(UPLOAD_DIR, String.valueOf(albumId));
+    }
+
+    public static void delete_album_directory(long albumId) throws IOException {
+        Path albumPath = get_album_path(albumId);
+        if (!Files.exists(albumPath)) return;
+
+        try (Stream<Path> paths = Files.walk(albumPath)) {
+            // children before parents
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
     // ===============================
     // 🖼 Generate thumbnail
     // ===============================
@@ -0,0 +1,34 @@
+package com.shank.AlbumsAPI.util.apputils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation tokens for keyset pagination. A token wraps the id of the
+ * last row of the previous page; clients must treat it as an opaque string.
+ */
+public final class Cursor {
+
+    private static final String VERSION = "v1:";
+
+    private Cursor() {}
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((VERSION + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns the id to continue after, 0 for the first page. */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(VERSION)) throw new IllegalArgumentException("Invalid cursor");
+            long lastId = Long.parseLong(value.substring(VERSION.length()));
+            if (lastId < 0) throw new IllegalArgumentException("Invalid cursor");
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
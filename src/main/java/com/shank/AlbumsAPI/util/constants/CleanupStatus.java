@@ -0,0 +1,8 @@
+package com.shank.AlbumsAPI.util.constants;
+
+public enum CleanupStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
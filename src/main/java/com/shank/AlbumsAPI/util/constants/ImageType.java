@@ -0,0 +1,63 @@
+package com.shank.AlbumsAPI.util.constants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public enum ImageType {
+    PNG("png", "image/png", new int[] {0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A}),
+    JPEG("jpeg", "image/jpeg", new int[] {0xFF, 0xD8, 0xFF});
+
+    // longest signature above
+    public static final int MAGIC_LENGTH = 8;
+
+    private final String formatName;
+    private final String contentType;
+    private final int[] magic;
+
+    ImageType(String formatName, String contentType, int[] magic) {
+        this.formatName = formatName;
+        this.contentType = contentType;
+        this.magic = magic;
+    }
+
+    public String getFormatName() {
+        return formatName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ImageType fromContentType(String contentType) {
+        for (ImageType type : values()) {
+            if (type.contentType.equals(contentType)) return type;
+        }
+        return null;
+    }
+
+    /** Reads the first bytes of a stored file and detects its type, or returns null. */
+    public static ImageType detect(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] header = new byte[MAGIC_LENGTH];
+            return detect(header, in.readNBytes(header, 0, MAGIC_LENGTH));
+        }
+    }
+
+    /** Detects the image type from the first bytes of a file, or returns null. */
+    public static ImageType detect(byte[] header, int length) {
+        for (ImageType type : values()) {
+            if (type.matches(header, length)) return type;
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < magic.length) return false;
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package com.shank.AlbumsAPI.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoBlobRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.service.FileThumbnailStore;
+import com.shank.AlbumsAPI.service.PhotoBlobService;
+import com.shank.AlbumsAPI.service.PhotoService;
+import com.shank.AlbumsAPI.service.PhotoStorageService;
+import com.shank.AlbumsAPI.service.PhotoUploadService;
+import com.shank.AlbumsAPI.service.ThumbnailService;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "storage.migrate-to-blobs=true"})
+@Import({BlobStorageMigration.class, PhotoService.class, PhotoBlobService.class, FileThumbnailStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlobStorageMigrationTests {
+
+    private static final String THUMBNAILS = "thumbnails_300";
+
+    @TempDir
+    Path uploadDir;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private BlobStorageMigration migration;
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+    @Autowired
+    private PhotoRepository photoRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private Album album;
+
+    @BeforeEach
+    void setUp() {
+        new AppUtil().setUploadDir(uploadDir.toString());
+        when(thumbnailService.getThumbnailFolders()).thenReturn(List.of(THUMBNAILS));
+
+        photoRepository.deleteAll();
+        photoBlobRepository.deleteAll();
+        albumRepository.deleteAll();
+        accountRepository.deleteAll();
+        Account account = new Account();
+        account.setEmail("migration@albumix.test");
+        account.setPassword("unused");
+        album = new Album();
+        album.setName("Album");
+        album.setDescription("");
+        album.setAccount(accountRepository.save(account));
+        album = albumRepository.save(album);
+    }
+
+    @Test
+    void duplicatesShareOneBlobAndARerunChangesNothing() throws IOException {
+        Photo first = legacyPhoto("first.jpg", "same bytes");
+        Photo second = legacyPhoto("second.jpg", "same bytes");
+        Photo missing = photoRepository.save(photo("missing.jpg"));
+        Path thumbnail = Files.writeString(
+                Path.of(AppUtil.get_photo_upload_path("first.jpg", THUMBNAILS, album.getId())), "thumbnail");
+        String hash = PhotoUploadService.hash(original("first.jpg"));
+
+        migration.run();
+        migration.run();
+
+        assertEquals(2, photoBlobRepository.findById(hash).orElseThrow().getRefCount());
+        assertEquals(hash, photoRepository.findById(first.getId()).orElseThrow().getContentHash());
+        assertEquals(hash, photoRepository.findById(second.getId()).orElseThrow().getContentHash());
+        assertNull(photoRepository.findById(missing.getId()).orElseThrow().getContentHash());
+        assertEquals("same bytes", Files.readString(AppUtil.get_blob_path(hash, PhotoStorageService.PHOTOS_FOLDER_NAME)));
+        assertEquals("thumbnail", Files.readString(AppUtil.get_blob_path(hash, THUMBNAILS)));
+        assertFalse(Files.exists(original("first.jpg")));
+        assertFalse(Files.exists(original("second.jpg")));
+        assertFalse(Files.exists(thumbnail));
+        try (Stream<Path> staged = Files.list(uploadDir.resolve("tmp"))) {
+            assertTrue(staged.findAny().isEmpty());
+        }
+    }
+
+    private Photo legacyPhoto(String fileName, String content) throws IOException {
+        Files.writeString(Path.of(AppUtil.get_photo_upload_path(fileName, PhotoStorageService.PHOTOS_FOLDER_NAME,
+                album.getId())), content);
+        return photoRepository.save(photo(fileName));
+    }
+
+    private Path original(String fileName) {
+        return AppUtil.get_photo_path(fileName, PhotoStorageService.PHOTOS_FOLDER_NAME, album.getId());
+    }
+
+    private Photo photo(String fileName) {
+        Photo photo = new Photo();
+        photo.setName(fileName);
+        photo.setFileName(fileName);
+        photo.setAlbum(album);
+        return photo;
+    }
+}
@@ -0,0 +1,54 @@
+package com.shank.AlbumsAPI.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class RequestTimingFilterTests {
+
+    @Test
+    void serverTimingIsOffByDefault() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/albums");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestTimingFilter(false).doFilter(request, response, new MockFilterChain(writer()));
+
+        assertNull(response.getHeader(RequestTimingFilter.SERVER_TIMING));
+        assertNotNull(request.getAttribute(RequestTimingFilter.STARTED_AT));
+    }
+
+    @Test
+    void serverTimingIsAddedBeforeTheBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/albums");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestTimingFilter(true).doFilter(request, response, new MockFilterChain(writer()));
+
+        assertTrue(response.getHeader(RequestTimingFilter.SERVER_TIMING).startsWith("app;dur="));
+        assertEquals(1, response.getHeaders(RequestTimingFilter.SERVER_TIMING).size());
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    // commits the response with its first write
+    private static HttpServlet writer() {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getOutputStream().write("[]".getBytes());
+                response.flushBuffer();
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.shank.AlbumsAPI.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ThumbnailExecutorConfigTests {
+
+    @Test
+    void pendingRetriesReachTheRenderPoolOnShutdown() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AnnotationConfigApplicationContext context = context(meterRegistry);
+        ThreadPoolTaskExecutor executor = context.getBean("thumbnailExecutor", ThreadPoolTaskExecutor.class);
+        ThreadPoolTaskScheduler scheduler = context.getBean("thumbnailRetryScheduler", ThreadPoolTaskScheduler.class);
+        CountDownLatch rendered = new CountDownLatch(1);
+
+        scheduler.schedule(() -> executor.execute(rendered::countDown), Instant.now().plusMillis(200));
+        context.close();
+
+        assertEquals(0, rendered.getCount());
+        assertEquals(0, meterRegistry.counter("thumbnail.dropped").count());
+    }
+
+    @Test
+    void jobsAfterShutdownAreRejectedAndCounted() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AnnotationConfigApplicationContext context = context(meterRegistry);
+        ThreadPoolTaskExecutor executor = context.getBean("thumbnailExecutor", ThreadPoolTaskExecutor.class);
+        context.close();
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> {}));
+        assertEquals(1, meterRegistry.counter("thumbnail.dropped").count());
+        assertTrue(executor.getThreadPoolExecutor().isTerminated());
+    }
+
+    private static AnnotationConfigApplicationContext context(MeterRegistry meterRegistry) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(MeterRegistry.class, () -> meterRegistry);
+        context.register(ThumbnailExecutorConfig.class);
+        context.refresh();
+        return context;
+    }
+}
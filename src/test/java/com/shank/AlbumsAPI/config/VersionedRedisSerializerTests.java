@@ -0,0 +1,161 @@
+package com.shank.AlbumsAPI.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.shank.AlbumsAPI.payload.albums.AlbumIndexDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumPageDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.payload.albums.CachedValueDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoDTO;
+
+class VersionedRedisSerializerTests {
+
+    private final CacheValueCodec binary = new BinaryCacheValueCodec();
+    private final CacheValueCodec json = new JsonCacheValueCodec();
+    private final VersionedRedisSerializer serializer =
+            new VersionedRedisSerializer(binary, json, List.of(binary, json), 1024);
+
+    @Test
+    void roundTripsAlbumPagesInBinary() {
+        // small enough to stay under the deflate threshold
+        AlbumPageDTO page = page(1, 2);
+        byte[] bytes = serializer.serialize(page);
+
+        assertEquals(VersionedRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(BinaryCacheValueCodec.ID, bytes[2]);
+        assertEquals(0, bytes[3]);
+        assertSamePage(page, (AlbumPageDTO) serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deflatesLargeValues() {
+        AlbumPageDTO page = page(20, 50);
+        byte[] bytes = serializer.serialize(page);
+
+        assertEquals(VersionedRedisSerializer.FLAG_DEFLATE, bytes[3]);
+        assertSamePage(page, (AlbumPageDTO) serializer.deserialize(bytes));
+    }
+
+    @Test
+    void storesAlbumPagesSmallerThanJson() {
+        VersionedRedisSerializer jsonFirst = new VersionedRedisSerializer(json, json, List.of(binary, json), 1024);
+        CachedValueDTO cached = new CachedValueDTO(page(20, 50), 1_760_000_000_000L, 42);
+
+        int binarySize = serializer.serialize(cached).length;
+        int jsonSize = jsonFirst.serialize(cached).length;
+
+        assertTrue(binarySize < jsonSize, binarySize + " bytes in binary, " + jsonSize + " in JSON");
+    }
+
+    @Test
+    void roundTripsCachedValues() {
+        CachedValueDTO cached = new CachedValueDTO(page(2, 3), 1_760_000_000_000L, 42);
+        CachedValueDTO read = (CachedValueDTO) serializer.deserialize(serializer.serialize(cached));
+
+        assertEquals(cached.getFreshUntil(), read.getFreshUntil());
+        assertEquals(cached.getRebuildMillis(), read.getRebuildMillis());
+        assertSamePage((AlbumPageDTO) cached.getValue(), (AlbumPageDTO) read.getValue());
+    }
+
+    @Test
+    void roundTripsAlbumIndexes() {
+        List<Long> ids = List.of(3L, 4L, 90L, 1_000_000_007L);
+        byte[] bytes = serializer.serialize(new CachedValueDTO(new AlbumIndexDTO(ids), 1, 0));
+
+        assertEquals(BinaryCacheValueCodec.ID, bytes[2]);
+        CachedValueDTO read = (CachedValueDTO) serializer.deserialize(bytes);
+        assertEquals(ids, ((AlbumIndexDTO) read.getValue()).getAlbumIds());
+    }
+
+    @Test
+    void keepsNullsApart() {
+        AlbumPageDTO page = new AlbumPageDTO(List.of(new AlbumViewDTO(7, null, "", null, null)), null);
+        AlbumPageDTO read = (AlbumPageDTO) serializer.deserialize(serializer.serialize(page));
+
+        AlbumViewDTO album = read.getAlbums().get(0);
+        assertNull(album.getName());
+        assertEquals("", album.getDescription());
+        assertNull(album.getPhotos());
+        assertNull(read.getNextCursor());
+    }
+
+    @Test
+    void fallsBackToJsonForOtherTypes() {
+        byte[] bytes = serializer.serialize(new ArrayList<>(List.of("a", "b")));
+
+        assertEquals(JsonCacheValueCodec.ID, bytes[2]);
+        assertEquals(List.of("a", "b"), serializer.deserialize(bytes));
+    }
+
+    @Test
+    void readsHeaderlessJsonWrittenBeforeVersioning() throws Exception {
+        AlbumPageDTO page = page(2, 2);
+        byte[] legacy = json.encode(page);
+
+        assertSamePage(page, assertInstanceOf(AlbumPageDTO.class, serializer.deserialize(legacy)));
+    }
+
+    @Test
+    void treatsUnknownVersionsAndCorruptValuesAsMisses() {
+        byte[] bytes = serializer.serialize(page(2, 2));
+        byte[] newer = bytes.clone();
+        newer[1] = (byte) (VersionedRedisSerializer.FORMAT_VERSION + 1);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertNull(serializer.deserialize(newer));
+        assertNull(serializer.deserialize(truncated));
+    }
+
+    @Test
+    void readsValuesWrittenByEitherCodec() {
+        VersionedRedisSerializer jsonFirst = new VersionedRedisSerializer(json, json, List.of(binary, json), 1024);
+        AlbumPageDTO page = page(2, 3);
+
+        assertSamePage(page, (AlbumPageDTO) jsonFirst.deserialize(serializer.serialize(page)));
+        assertSamePage(page, (AlbumPageDTO) serializer.deserialize(jsonFirst.serialize(page)));
+    }
+
+    static AlbumPageDTO page(int albums, int photosPerAlbum) {
+        List<AlbumViewDTO> views = new ArrayList<>();
+        for (int a = 1; a <= albums; a++) {
+            List<PhotoDTO> photos = new ArrayList<>();
+            for (int p = 1; p <= photosPerAlbum; p++) {
+                long id = a * 1000L + p;
+                photos.add(new PhotoDTO(id, "IMG_" + id + ".jpg", "Photo " + id + " ✓",
+                        "/api/v2/albums/" + a + "/photos/" + id + "/download-photo"));
+            }
+            views.add(new AlbumViewDTO(a, "Album " + a, "Description " + a, photos, a % 2 == 0 ? "cursor-" + a : null));
+        }
+        return new AlbumPageDTO(views, "next");
+    }
+
+    private static void assertSamePage(AlbumPageDTO expected, AlbumPageDTO actual) {
+        assertEquals(expected.getNextCursor(), actual.getNextCursor());
+        assertEquals(expected.getAlbums().size(), actual.getAlbums().size());
+        for (int i = 0; i < expected.getAlbums().size(); i++) {
+            AlbumViewDTO a = expected.getAlbums().get(i);
+            AlbumViewDTO b = actual.getAlbums().get(i);
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getName(), b.getName());
+            assertEquals(a.getDescription(), b.getDescription());
+            assertEquals(a.getPhotosCursor(), b.getPhotosCursor());
+            assertEquals(a.getPhotos().size(), b.getPhotos().size());
+            for (int j = 0; j < a.getPhotos().size(); j++) {
+                PhotoDTO p = a.getPhotos().get(j);
+                PhotoDTO q = b.getPhotos().get(j);
+                assertEquals(Map.of("id", p.getId(), "name", p.getName(), "description", p.getDescription(), "link", p.getDownload_link()),
+                        Map.of("id", q.getId(), "name", q.getName(), "description", q.getDescription(), "link", q.getDownload_link()));
+            }
+        }
+    }
+}
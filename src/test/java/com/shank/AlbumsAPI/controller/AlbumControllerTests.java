@@ -0,0 +1,131 @@
+package com.shank.AlbumsAPI.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.payload.albums.PhotoViewDTO;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.service.AccountService;
+import com.shank.AlbumsAPI.service.AlbumCacheService;
+import com.shank.AlbumsAPI.service.AlbumCleanupService;
+import com.shank.AlbumsAPI.service.AlbumService;
+import com.shank.AlbumsAPI.service.AlbumViewService;
+import com.shank.AlbumsAPI.service.FileDownloadService;
+import com.shank.AlbumsAPI.service.PhotoBlobService;
+import com.shank.AlbumsAPI.service.PhotoService;
+import com.shank.AlbumsAPI.service.PhotoStorageService;
+import com.shank.AlbumsAPI.service.PhotoUploadService;
+import com.shank.AlbumsAPI.service.PhotoUploadService.BatchItem;
+import com.shank.AlbumsAPI.service.PhotoUploadService.StoredUpload;
+import com.shank.AlbumsAPI.service.ThumbnailService;
+import com.shank.AlbumsAPI.util.constants.ImageType;
+
+/**
+ * The multi-file upload's row inserts against H2, with the stored files mocked:
+ * a row the database refuses fails the batch insert, the rows are then saved one
+ * by one, and only the refused row loses its blob reference.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(PhotoService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AlbumControllerTests {
+
+    // longer than the name column
+    private static final String REFUSED = "x".repeat(300) + ".jpg";
+
+    @Autowired
+    private PhotoService photoService;
+    @Autowired
+    private PhotoRepository photoRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final AlbumService albumService = mock(AlbumService.class);
+    private final PhotoUploadService photoUploadService = mock(PhotoUploadService.class);
+    private final PhotoBlobService photoBlobService = mock(PhotoBlobService.class);
+    private final PhotoStorageService photoStorageService = mock(PhotoStorageService.class);
+    private final AlbumCacheService albumCacheService = mock(AlbumCacheService.class);
+
+    private AlbumController controller;
+    private Album album;
+
+    @BeforeEach
+    void setUp() {
+        photoRepository.deleteAll();
+        albumRepository.deleteAll();
+        accountRepository.deleteAll();
+        Account account = new Account();
+        account.setEmail("uploads@albumix.test");
+        account.setPassword("unused");
+        album = new Album();
+        album.setName("Album");
+        album.setDescription("");
+        album.setAccount(accountRepository.save(account));
+        album = albumRepository.save(album);
+        when(albumService.findById(album.getId())).thenReturn(Optional.of(album));
+
+        controller = new AlbumController(mock(ThumbnailService.class), mock(AccountService.class), albumService,
+                mock(AlbumViewService.class), photoService, photoUploadService, photoStorageService, photoBlobService,
+                albumCacheService, mock(AlbumCleanupService.class), mock(FileDownloadService.class));
+    }
+
+    @Test
+    void refusedRowFailsAloneAndReleasesItsBlob() throws IOException {
+        MultipartFile[] files = {file("first.jpg"), file(REFUSED), file("unreadable.jpg"), file("last.jpg")};
+        when(photoUploadService.storeAll(files)).thenReturn(List.of(
+                stored(files[0], "a"),
+                stored(files[1], "b"),
+                new BatchItem(files[2], null, new IllegalArgumentException("Unsupported image type")),
+                stored(files[3], "c")));
+
+        HashMap<String, List<?>> result = controller.photos(files, album.getId(), album.getAccount().getId())
+                .getBody().get(0);
+
+        assertEquals(List.of("first.jpg", "last.jpg"),
+                result.get("SUCCESS").stream().map(photo -> ((PhotoViewDTO) photo).getName()).toList());
+        assertEquals(List.of(REFUSED, "unreadable.jpg"), result.get("ERRORS"));
+        assertEquals(List.of("first.jpg", "last.jpg"),
+                photoRepository.findByAlbum_id(album.getId()).stream().map(Photo::getName).sorted().toList());
+        verify(photoBlobService).release(hash("b"));
+        verify(photoBlobService, never()).release(hash("a"));
+        verify(photoBlobService, never()).release(hash("c"));
+        verify(albumCacheService).evictAlbum(album.getAccount().getId(), album.getId());
+    }
+
+    private static MockMultipartFile file(String name) {
+        return new MockMultipartFile("files", name, "image/jpeg", new byte[] {1});
+    }
+
+    private static BatchItem stored(MultipartFile file, String seed) {
+        return new BatchItem(file, new StoredUpload(ImageType.JPEG, 1, 1, 1, hash(seed), false), null);
+    }
+
+    private static String hash(String seed) {
+        return seed.repeat(64);
+    }
+}
@@ -0,0 +1,66 @@
+package com.shank.AlbumsAPI.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+
+import com.shank.AlbumsAPI.payload.auth.TokenDTO;
+import com.shank.AlbumsAPI.payload.auth.UserLoginDTO;
+import com.shank.AlbumsAPI.security.CachingJwtDecoder;
+import com.shank.AlbumsAPI.security.PasswordConfig;
+import com.shank.AlbumsAPI.service.AccountService;
+import com.shank.AlbumsAPI.service.TokenService;
+
+class AuthControllerTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) executor.shutdown();
+    }
+
+    @Test
+    void fullVerifyPoolAnswers503Immediately() {
+        // one thread busy, one login queued: the pool is saturated
+        executor = new PasswordConfig().passwordVerifyExecutor(1, 1);
+        executor.initialize();
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+        AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+        AuthController controller = new AuthController(mock(TokenService.class), authenticationManager,
+                mock(AccountService.class), executor, mock(CachingJwtDecoder.class));
+        UserLoginDTO login = new UserLoginDTO();
+        login.setEmail("user@albumix.test");
+        login.setPassword("pass987");
+
+        CompletableFuture<ResponseEntity<TokenDTO>> response = controller.token(login);
+
+        assertTrue(response.isDone());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.join().getStatusCode());
+        assertEquals("1", response.join().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verifyNoInteractions(authenticationManager);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
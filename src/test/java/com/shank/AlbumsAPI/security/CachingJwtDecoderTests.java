@@ -0,0 +1,100 @@
+package com.shank.AlbumsAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.shank.AlbumsAPI.service.RedisStandIn;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Revocations against a Redis stand-in, with no listener container: a node that
+ * never hears the broadcast must still reject the token.
+ */
+class CachingJwtDecoderTests {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final Jwt jwt = Jwt.withTokenValue(TOKEN)
+            .header("alg", "RS256")
+            .subject("42")
+            .issuedAt(now)
+            .expiresAt(now.plus(1, ChronoUnit.HOURS))
+            .build();
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        redis = new RedisStandIn();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", redis.port()),
+                LettuceClientConfiguration.builder()
+                        // the stand-in speaks RESP2 only
+                        .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void liveTokenIsVerifiedOnce() {
+        CachingJwtDecoder decoder = decoder();
+
+        assertSame(jwt, decoder.decode(TOKEN));
+        assertSame(jwt, decoder.decode(TOKEN));
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void revocationReachesANodeThatMissedTheBroadcast() {
+        CachingJwtDecoder revoking = decoder();
+        CachingJwtDecoder restarted = decoder();
+
+        revoking.revoke(jwt);
+
+        assertTrue(stringRedisTemplate.hasKey(CachingJwtDecoder.REVOKED_PREFIX + CachingJwtDecoder.digest(TOKEN)));
+        assertThrows(BadJwtException.class, () -> restarted.decode(TOKEN));
+        // remembered locally: the second attempt is not verified again
+        assertThrows(BadJwtException.class, () -> restarted.decode(TOKEN));
+        assertEquals(1, verifications.get());
+    }
+
+    private CachingJwtDecoder decoder() {
+        return new CachingJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            return jwt;
+        }, stringRedisTemplate, new SimpleMeterRegistry(), 100, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,41 @@
+package com.shank.AlbumsAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisabledOnOs(OS.WINDOWS)
+class SigningKeyStoreTests {
+
+    @TempDir
+    Path parent;
+
+    @Test
+    void keyDirectoryIsCreatedOwnerOnly() throws IOException {
+        Path dir = parent.resolve("albumix").resolve("keys");
+
+        SigningKeyStore store = new SigningKeyStore(dir.toString(), "ES256", 168, 2, true);
+
+        assertNotNull(store.signingKey());
+        assertEquals(SigningKeyStore.OWNER_ONLY, Files.getPosixFilePermissions(dir));
+    }
+
+    @Test
+    void openKeyDirectoryIsRestricted() throws IOException {
+        Path dir = Files.createDirectory(parent.resolve("keys"),
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxr-xr-x")));
+
+        new SigningKeyStore(dir.toString(), "ES256", 168, 2, true);
+
+        assertEquals(SigningKeyStore.OWNER_ONLY, Files.getPosixFilePermissions(dir));
+    }
+}
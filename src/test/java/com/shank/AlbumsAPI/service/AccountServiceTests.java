@@ -0,0 +1,129 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.security.PasswordConfig;
+
+/**
+ * Rehash on login, through a {@link DaoAuthenticationProvider} wired the way
+ * Spring Security wires the application's: {@link AccountService} both loads the
+ * account and stores the upgraded hash.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({AccountService.class, AccountServiceTests.Passwords.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountServiceTests {
+
+    private static final String EMAIL = "rehash@albumix.test";
+    private static final String PASSWORD = "pass987";
+
+    @TestConfiguration
+    static class Passwords {
+        // bcrypt at the lowest strength calibration ever picks
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordConfig.passwordEncoder("bcrypt", 10, 250);
+        }
+    }
+
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private DaoAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        provider = new DaoAuthenticationProvider(accountService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(accountService);
+    }
+
+    @Test
+    void pbkdf2HashIsUpgradedToBcrypt() {
+        store("{pbkdf2@SpringSecurity_v5_8}" + Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode(PASSWORD));
+
+        login(PASSWORD);
+
+        assertTrue(storedHash().startsWith("{bcrypt}$2a$10$"), storedHash());
+        login(PASSWORD);
+    }
+
+    @Test
+    void lowCostBcryptHashIsUpgraded() {
+        store("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        login(PASSWORD);
+
+        assertTrue(storedHash().startsWith("{bcrypt}$2a$10$"), storedHash());
+    }
+
+    @Test
+    void unprefixedHashIsUpgraded() {
+        store(new BCryptPasswordEncoder(10).encode(PASSWORD));
+
+        login(PASSWORD);
+
+        assertTrue(storedHash().startsWith("{bcrypt}$2a$10$"), storedHash());
+    }
+
+    @Test
+    void currentHashIsLeftUntouched() {
+        String current = passwordEncoder.encode(PASSWORD);
+        store(current);
+
+        login(PASSWORD);
+
+        assertEquals(current, storedHash());
+    }
+
+    @Test
+    void failedLoginDoesNotRehash() {
+        String outdated = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+        store(outdated);
+
+        assertThrows(BadCredentialsException.class, () -> login("wrong-password"));
+
+        assertEquals(outdated, storedHash());
+    }
+
+    private void store(String hash) {
+        Account account = new Account();
+        account.setEmail(EMAIL);
+        account.setPassword(hash);
+        account.setAuthorities("ROLE_USER");
+        accountRepository.save(account);
+    }
+
+    private void login(String password) {
+        provider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, password));
+    }
+
+    private String storedHash() {
+        return accountRepository.findByEmail(EMAIL).orElseThrow().getPassword();
+    }
+}
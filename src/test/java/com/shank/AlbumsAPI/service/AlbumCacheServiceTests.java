@@ -0,0 +1,212 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.shank.AlbumsAPI.payload.albums.AlbumPageDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Proves that concurrent misses on one page rebuild it once, on one node and
+ * across nodes sharing a Redis, and that a write to one album only rebuilds that
+ * album. Redis is an in-memory map behind mocks.
+ */
+class AlbumCacheServiceTests {
+
+    private static final int CALLERS_PER_NODE = 16;
+
+    private final Map<String, Map<Object, Object>> hashes = new ConcurrentHashMap<>();
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final Map<String, String> locks = new ConcurrentHashMap<>();
+    private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        callers = Executors.newFixedThreadPool(2 * CALLERS_PER_NODE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @Test
+    void concurrentMissesOnOneNodeRebuildOnce() throws Exception {
+        AlbumCacheService node = node();
+        AtomicInteger rebuilds = new AtomicInteger();
+
+        List<AlbumPageDTO> results = race(List.of(node), slowLoader(rebuilds));
+
+        assertEquals(1, rebuilds.get());
+        results.forEach(result -> assertSame(results.get(0), result));
+    }
+
+    @Test
+    void concurrentMissesAcrossNodesRebuildOnce() throws Exception {
+        AlbumCacheService first = node();
+        AlbumCacheService second = node();
+        AtomicInteger rebuilds = new AtomicInteger();
+
+        List<AlbumPageDTO> results = race(List.of(first, second), slowLoader(rebuilds));
+
+        assertEquals(1, rebuilds.get());
+        assertEquals(2 * CALLERS_PER_NODE, results.size());
+        results.forEach(result -> assertEquals(1L, result.getAlbums().get(0).getId()));
+    }
+
+    @Test
+    void eachPageRebuildsOnce() throws Exception {
+        AlbumCacheService node = node();
+        Map<String, AtomicInteger> rebuilds = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<AlbumPageDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 2 * CALLERS_PER_NODE; i++) {
+            String page = "0:" + (i % 4);
+            futures.add(callers.submit(() -> {
+                start.await();
+                return node.albumPage(1, 1, page, slowLoader(rebuilds.computeIfAbsent(page, p -> new AtomicInteger())));
+            }));
+        }
+        start.countDown();
+        for (Future<AlbumPageDTO> future : futures) future.get(10, TimeUnit.SECONDS);
+
+        assertEquals(4, rebuilds.size());
+        rebuilds.values().forEach(count -> assertEquals(1, count.get()));
+    }
+
+    @Test
+    void writeToOneAlbumRebuildsOnlyThatAlbum() {
+        AlbumCacheService node = node();
+        List<List<Long>> batches = new ArrayList<>();
+        Function<List<Long>, Map<Long, AlbumViewDTO>> loader = ids -> {
+            batches.add(List.copyOf(ids));
+            Map<Long, AlbumViewDTO> albums = new HashMap<>();
+            for (long id : ids) albums.put(id, new AlbumViewDTO(id, "Album " + id, "", new ArrayList<>()));
+            return albums;
+        };
+
+        List<AlbumViewDTO> first = node.albums(List.of(3L, 1L, 2L), loader);
+        node.evictAlbum(1, 2);
+        List<AlbumViewDTO> second = node.albums(List.of(3L, 1L, 2L), loader);
+
+        assertEquals(List.of(List.of(3L, 1L, 2L), List.of(2L)), batches);
+        assertEquals(List.of(3L, 1L, 2L), first.stream().map(AlbumViewDTO::getId).toList());
+        assertEquals(List.of(3L, 1L, 2L), second.stream().map(AlbumViewDTO::getId).toList());
+    }
+
+    private List<AlbumPageDTO> race(List<AlbumCacheService> nodes, Supplier<AlbumPageDTO> loader) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AlbumPageDTO>> futures = new ArrayList<>();
+        for (AlbumCacheService node : nodes) {
+            for (int i = 0; i < CALLERS_PER_NODE; i++) {
+                futures.add(callers.submit(() -> {
+                    start.await();
+                    return node.albumPage(1, 1, "0:20", loader);
+                }));
+            }
+        }
+        start.countDown();
+
+        List<AlbumPageDTO> results = new ArrayList<>();
+        for (Future<AlbumPageDTO> future : futures) results.add(future.get(10, TimeUnit.SECONDS));
+        return results;
+    }
+
+    // slow enough that every caller arrives while the first rebuild is running
+    private static Supplier<AlbumPageDTO> slowLoader(AtomicInteger rebuilds) {
+        return () -> {
+            rebuilds.incrementAndGet();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new AlbumPageDTO(List.of(new AlbumViewDTO(1, "Album", "", new ArrayList<>())), null);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private AlbumCacheService node() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        HashOperations<String, Object, Object> hashOps = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(hashOps.get(anyString(), any())).thenAnswer(call ->
+                hashes.getOrDefault(call.<String>getArgument(0), Map.of()).get(call.getArgument(1)));
+        doAnswer(call -> hashes.computeIfAbsent(call.getArgument(0), k -> new ConcurrentHashMap<>())
+                .put(call.getArgument(1), call.getArgument(2)))
+                .when(hashOps).put(anyString(), any(), any());
+        when(redisTemplate.expire(anyString(), anyLong(), any())).thenReturn(true);
+        ValueOperations<String, Object> valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.multiGet(any())).thenAnswer(call -> {
+            List<Object> found = new ArrayList<>();
+            for (String key : call.<List<String>>getArgument(0)) found.add(values.get(key));
+            return found;
+        });
+        // pipelined writes are not replayed; the writing node still has them in L1
+        when(redisTemplate.delete(anyCollection())).thenAnswer(call -> {
+            long deleted = 0;
+            for (String key : call.<List<String>>getArgument(0)) {
+                if (values.remove(key) != null | hashes.remove(key) != null) deleted++;
+            }
+            return deleted;
+        });
+
+        RedisLock redisLock = new RedisLock(mock(StringRedisTemplate.class)) {
+            @Override
+            public String tryAcquire(String key, Duration ttl) {
+                String token = Thread.currentThread().getName();
+                return locks.putIfAbsent(key, token) == null ? token : null;
+            }
+
+            @Override
+            public void release(String key, String token) {
+                locks.remove(key, token);
+            }
+        };
+
+        ThreadPoolTaskExecutor refreshExecutor = new ThreadPoolTaskExecutor();
+        refreshExecutor.setCorePoolSize(1);
+        refreshExecutor.initialize();
+        executors.add(refreshExecutor);
+
+        return new AlbumCacheService(redisTemplate, mock(StringRedisTemplate.class), redisLock, refreshExecutor,
+                new SimpleMeterRegistry(), 20000, 60, 600, 120, 1.0, 5000, 3000);
+    }
+}
@@ -0,0 +1,263 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.shank.AlbumsAPI.config.RedisConfig;
+import com.shank.AlbumsAPI.payload.albums.AlbumIndexDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumPageDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoDTO;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The two tiers against a Redis stand-in, through the production templates,
+ * serializer and listener container: which tier answers each read, the L1
+ * weight bound, and invalidations reaching a peer's L1.
+ */
+class AlbumCacheTierTests {
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> redisTemplate;
+    private StringRedisTemplate stringRedisTemplate;
+    private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        redis = new RedisStandIn();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", redis.port()),
+                LettuceClientConfiguration.builder()
+                        // the stand-in speaks RESP2 only
+                        .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisConfig().redisTemplate(connectionFactory, "binary", 1024);
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        containers.forEach(RedisMessageListenerContainer::stop);
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void photoPagesAreServedByTheNearestTier() {
+        MeterRegistry firstMeters = new SimpleMeterRegistry();
+        MeterRegistry secondMeters = new SimpleMeterRegistry();
+        AlbumCacheService first = node(firstMeters, 20000);
+        AlbumCacheService second = node(secondMeters, 20000);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<AlbumPageDTO> loader = () -> {
+            loads.incrementAndGet();
+            return new AlbumPageDTO(List.of(album(7, 3)), null);
+        };
+
+        first.albumPage(1, 7, "0:20", loader);   // built
+        first.albumPage(1, 7, "0:20", loader);   // its L1
+        second.albumPage(1, 7, "0:20", loader);  // Redis
+        AlbumPageDTO page = second.albumPage(1, 7, "0:20", loader);  // its L1
+
+        assertEquals(1, loads.get());
+        assertEquals(3, page.getAlbums().get(0).getPhotos().size());
+        assertEquals(1, requests(firstMeters, "photos", "l1", "hit"));
+        assertEquals(1, requests(firstMeters, "photos", "l1", "miss"));
+        assertEquals(1, requests(firstMeters, "photos", "redis", "miss"));
+        assertEquals(0, requests(firstMeters, "photos", "redis", "hit"));
+        assertEquals(1, requests(secondMeters, "photos", "l1", "hit"));
+        assertEquals(1, requests(secondMeters, "photos", "l1", "miss"));
+        assertEquals(1, requests(secondMeters, "photos", "redis", "hit"));
+        assertEquals(0, requests(secondMeters, "photos", "redis", "miss"));
+    }
+
+    @Test
+    void albumsAndIndexAreCountedPerFamily() {
+        MeterRegistry firstMeters = new SimpleMeterRegistry();
+        MeterRegistry secondMeters = new SimpleMeterRegistry();
+        AlbumCacheService first = node(firstMeters, 20000);
+        AlbumCacheService second = node(secondMeters, 20000);
+        Supplier<AlbumIndexDTO> index = () -> new AlbumIndexDTO(List.of(1L, 2L, 3L));
+
+        first.index(1, index);
+        second.index(1, index);
+        first.albums(List.of(1L, 2L, 3L), albums(new AtomicInteger()));
+        second.albums(List.of(1L, 2L, 3L), albums(new AtomicInteger()));
+        second.albums(List.of(1L, 2L, 3L), albums(new AtomicInteger()));
+
+        assertEquals(1, requests(firstMeters, "index", "redis", "miss"));
+        assertEquals(1, requests(secondMeters, "index", "redis", "hit"));
+        assertEquals(3, requests(firstMeters, "album", "l1", "miss"));
+        assertEquals(3, requests(firstMeters, "album", "redis", "miss"));
+        assertEquals(3, requests(secondMeters, "album", "redis", "hit"));
+        assertEquals(3, requests(secondMeters, "album", "l1", "hit"));
+        assertEquals(0, requests(secondMeters, "album", "redis", "miss"));
+    }
+
+    // the string an earlier release cached for the account must not break the index
+    @Test
+    void legacyListingKeyIsLeftAlone() {
+        stringRedisTemplate.opsForValue().set("albums::1", "[{\"id\":1}]", Duration.ofMinutes(10));
+        AlbumCacheService node = node(new SimpleMeterRegistry(), 20000);
+
+        AlbumIndexDTO index = node.index(1, () -> new AlbumIndexDTO(List.of(1L, 2L)));
+        node.evictIndex(1);
+
+        assertEquals(List.of(1L, 2L), index.getAlbumIds());
+        assertEquals("[{\"id\":1}]", stringRedisTemplate.opsForValue().get("albums::1"));
+    }
+
+    @Test
+    void l1StaysWithinItsWeight() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        // each album weighs 1 + 4 photos, so two fit
+        AlbumCacheService node = node(meters, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        node.albums(List.of(1L), albums(loads));
+        node.albums(List.of(2L), albums(loads));
+        node.albums(List.of(3L), albums(loads));
+
+        assertEquals(10, meters.get("albums.cache.l1.weight").gauge().value());
+        assertEquals(1, meters.get("albums.cache.evictions").tag("tier", "l1").counter().count());
+
+        // the least recently used album fell back to Redis, not to the loader
+        node.albums(List.of(3L), albums(loads));
+        node.albums(List.of(1L), albums(loads));
+        assertEquals(1, requests(meters, "album", "l1", "hit"));
+        assertEquals(1, requests(meters, "album", "redis", "hit"));
+        assertEquals(3, loads.get());
+
+        // heavier than the whole L1: served from Redis every time
+        node.albumPage(1, 9, "0:20", () -> new AlbumPageDTO(List.of(album(9, 20)), null));
+        node.albumPage(1, 9, "0:20", () -> new AlbumPageDTO(List.of(album(9, 20)), null));
+        assertEquals(0, requests(meters, "photos", "l1", "hit"));
+        assertEquals(1, requests(meters, "photos", "redis", "hit"));
+        assertTrue(meters.get("albums.cache.l1.weight").gauge().value() <= 10);
+    }
+
+    @Test
+    void evictionDropsEveryPageOfTheAlbumOnly() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        AlbumCacheService node = node(meters, 20000);
+        node.albumPage(1, 7, "0:20", () -> new AlbumPageDTO(List.of(album(7, 3)), null));
+        node.albumPage(1, 7, "20:20", () -> new AlbumPageDTO(List.of(album(7, 3)), null));
+        node.albumPage(1, 8, "0:20", () -> new AlbumPageDTO(List.of(album(8, 3)), null));
+
+        node.evictAlbum(1, 7);
+
+        // one page of album 8 is left: the page, its album and 3 photos
+        assertEquals(5, meters.get("albums.cache.l1.weight").gauge().value());
+        node.albumPage(1, 8, "0:20", () -> new AlbumPageDTO(List.of(album(8, 3)), null));
+        assertEquals(1, requests(meters, "photos", "l1", "hit"));
+    }
+
+    @Test
+    void evictionOnOneNodeDropsThePeersL1Copy() throws Exception {
+        MeterRegistry firstMeters = new SimpleMeterRegistry();
+        MeterRegistry secondMeters = new SimpleMeterRegistry();
+        AlbumCacheService first = node(firstMeters, 20000);
+        AlbumCacheService second = node(secondMeters, 20000);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<AlbumPageDTO> loader = () -> {
+            loads.incrementAndGet();
+            return new AlbumPageDTO(List.of(album(7, 3)), null);
+        };
+        second.albumPage(1, 7, "0:20", loader);
+        second.albumPage(1, 7, "0:20", loader);
+        assertEquals(1, requests(secondMeters, "photos", "l1", "hit"));
+
+        first.evictAlbum(1, 7);
+        awaitCount(secondMeters, 1);
+        second.albumPage(1, 7, "0:20", loader);
+
+        assertEquals(1, secondMeters.get("albums.cache.evictions").tag("tier", "l1").counter().count());
+        assertEquals(2, loads.get());
+        assertEquals(1, requests(secondMeters, "photos", "l1", "hit"));
+        assertEquals(2, requests(secondMeters, "photos", "redis", "miss"));
+        assertEquals(1, firstMeters.get("albums.cache.evictions").tag("tier", "redis").counter().count());
+    }
+
+    private AlbumCacheService node(MeterRegistry meterRegistry, long l1MaxWeight) {
+        ThreadPoolTaskExecutor refreshExecutor = new ThreadPoolTaskExecutor();
+        refreshExecutor.setCorePoolSize(1);
+        refreshExecutor.initialize();
+        executors.add(refreshExecutor);
+
+        AlbumCacheService node = new AlbumCacheService(redisTemplate, stringRedisTemplate,
+                new RedisLock(stringRedisTemplate), refreshExecutor, meterRegistry,
+                l1MaxWeight, 60, 600, 120, 0, 5000, 3000);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(node, new ChannelTopic(AlbumCacheService.INVALIDATION_CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+        return node;
+    }
+
+    private static Function<List<Long>, Map<Long, AlbumViewDTO>> albums(AtomicInteger loads) {
+        return ids -> {
+            loads.incrementAndGet();
+            Map<Long, AlbumViewDTO> albums = new HashMap<>();
+            for (long id : ids) albums.put(id, album(id, 4));
+            return albums;
+        };
+    }
+
+    private static AlbumViewDTO album(long id, int photos) {
+        List<PhotoDTO> list = new ArrayList<>();
+        for (int i = 0; i < photos; i++) {
+            list.add(new PhotoDTO(i, "Photo " + i, "", "/albums/" + id + "/photos/" + i + "/download-photo"));
+        }
+        return new AlbumViewDTO(id, "Album " + id, "", list);
+    }
+
+    private static double requests(MeterRegistry meters, String family, String tier, String result) {
+        return meters.get("albums.cache.requests")
+                .tags("family", family, "tier", tier, "result", result)
+                .counter().count();
+    }
+
+    // invalidations arrive on the listener container's thread
+    private static void awaitCount(MeterRegistry meters, double l1Evictions) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meters.get("albums.cache.evictions").tag("tier", "l1").counter().count() < l1Evictions
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.model.AlbumCleanup;
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.model.PhotoBlob;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumCleanupRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoBlobRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import com.shank.AlbumsAPI.util.constants.CleanupStatus;
+
+/**
+ * The cleanup queue against H2: jobs are written with the delete, claimed by one
+ * worker at a time, retried until {@code max-attempts} and found again by the
+ * poller after a worker dies. The executor runs jobs inline.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "albums.cleanup.max-attempts=2",
+        "albums.cleanup.lease-seconds=300"})
+@Import({AlbumCleanupService.class, PhotoBlobService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AlbumCleanupServiceTests {
+
+    private static final Duration LEASE = Duration.ofSeconds(300);
+    private static final String SHARED = "ab" + "0".repeat(62);
+    private static final String OWN = "cd" + "0".repeat(62);
+
+    @TempDir
+    Path uploadDir;
+
+    @MockitoBean
+    private ThumbnailStore thumbnailStore;
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+    @MockitoBean(name = "albumCleanupExecutor")
+    private ThreadPoolTaskExecutor albumCleanupExecutor;
+
+    @Autowired
+    private AlbumCleanupService albumCleanupService;
+    @Autowired
+    private AlbumCleanupRepository albumCleanupRepository;
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+    @Autowired
+    private PhotoRepository photoRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long accountId;
+    private Album deleted;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new AppUtil().setUploadDir(uploadDir.toString());
+        when(thumbnailService.getThumbnailFolders()).thenReturn(List.of());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(albumCleanupExecutor).execute(any(Runnable.class));
+
+        albumCleanupRepository.deleteAll();
+        photoRepository.deleteAll();
+        photoBlobRepository.deleteAll();
+        albumRepository.deleteAll();
+        accountRepository.deleteAll();
+
+        Account account = new Account();
+        account.setEmail("cleanup@albumix.test");
+        account.setPassword("unused");
+        account = accountRepository.save(account);
+        accountId = account.getId();
+        deleted = album(account);
+        Album kept = album(account);
+
+        // SHARED: twice in the deleted album, once in the kept one; OWN: only in the deleted album
+        photoBlobRepository.saveAll(List.of(new PhotoBlob(SHARED, 3, 5), new PhotoBlob(OWN, 1, 5)));
+        photoRepository.saveAll(List.of(photo(deleted, SHARED), photo(deleted, SHARED), photo(deleted, OWN),
+                photo(kept, SHARED)));
+        for (String hash : List.of(SHARED, OWN)) {
+            Files.writeString(AppUtil.get_blob_upload_path(hash, PhotoStorageService.PHOTOS_FOLDER_NAME), hash);
+        }
+    }
+
+    @Test
+    void deleteReleasesReferencesAndWritesTheJobInOneTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            albumCleanupService.deleteAlbum(deleted.getId(), accountId);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(3, refCount(SHARED));
+        assertEquals(3, photoRepository.findByAlbum_id(deleted.getId()).size());
+        assertEquals(0, albumCleanupRepository.count());
+
+        AlbumCleanup cleanup = albumCleanupService.deleteAlbum(deleted.getId(), accountId);
+
+        assertEquals(1, refCount(SHARED));
+        assertEquals(0, refCount(OWN));
+        assertTrue(photoRepository.findByAlbum_id(deleted.getId()).isEmpty());
+        assertTrue(albumRepository.findById(deleted.getId()).isEmpty());
+        assertEquals(CleanupStatus.PENDING, cleanup.getStatus());
+        assertEquals(List.of(SHARED, OWN), albumCleanupRepository.findBlobHashes(cleanup.getId()).stream().sorted().toList());
+        assertEquals(3, cleanup.getTotalItems());
+    }
+
+    @Test
+    void claimIsHeldForTheLease() {
+        long id = albumCleanupService.deleteAlbum(deleted.getId(), accountId).getId();
+        Instant claimed = Instant.now();
+
+        assertEquals(1, albumCleanupRepository.claim(id, claimed, claimed.minus(LEASE)));
+        Instant during = claimed.plusSeconds(10);
+        assertEquals(0, albumCleanupRepository.claim(id, during, during.minus(LEASE)));
+        Instant after = claimed.plus(LEASE).plusSeconds(1);
+        assertEquals(1, albumCleanupRepository.claim(id, after, after.minus(LEASE)));
+
+        assertEquals(2, albumCleanupRepository.findById(id).orElseThrow().getAttempts());
+    }
+
+    @Test
+    void submittedJobSweepsUnreferencedBlobsOnly() {
+        long id = albumCleanupService.deleteAlbum(deleted.getId(), accountId).getId();
+
+        albumCleanupService.submit(id);
+
+        AlbumCleanup cleanup = albumCleanupRepository.findById(id).orElseThrow();
+        assertEquals(CleanupStatus.DONE, cleanup.getStatus());
+        assertEquals(3, cleanup.getCompletedItems());
+        assertTrue(photoBlobRepository.findById(OWN).isEmpty());
+        assertFalse(Files.exists(AppUtil.get_blob_path(OWN, PhotoStorageService.PHOTOS_FOLDER_NAME)));
+        assertEquals(1, refCount(SHARED));
+        assertTrue(Files.exists(AppUtil.get_blob_path(SHARED, PhotoStorageService.PHOTOS_FOLDER_NAME)));
+    }
+
+    @Test
+    void failedRunIsRetriedUntilMaxAttempts() {
+        long id = albumCleanupService.deleteAlbum(deleted.getId(), accountId).getId();
+        doThrow(new IllegalStateException("disk unavailable")).when(thumbnailStore).deleteUnder(any(Path.class));
+
+        albumCleanupService.run(id);
+        AlbumCleanup first = albumCleanupRepository.findById(id).orElseThrow();
+        assertEquals(CleanupStatus.PENDING, first.getStatus());
+        assertEquals("disk unavailable", first.getLastError());
+        assertEquals(1, first.getAttempts());
+
+        albumCleanupService.run(id);
+        albumCleanupService.run(id);
+        AlbumCleanup last = albumCleanupRepository.findById(id).orElseThrow();
+        assertEquals(CleanupStatus.FAILED, last.getStatus());
+        assertEquals(2, last.getAttempts());
+        // its blob is left for a manual rerun, not lost
+        assertEquals(0, refCount(OWN));
+    }
+
+    @Test
+    void pollerFinishesAJobWhoseWorkerDied() {
+        long id = albumCleanupService.deleteAlbum(deleted.getId(), accountId).getId();
+        // claimed by a node that stopped before its lease ran out
+        Instant crashed = Instant.now().minus(LEASE).minusSeconds(1);
+        albumCleanupRepository.claim(id, crashed, crashed.minus(LEASE));
+
+        albumCleanupService.poll();
+
+        AlbumCleanup cleanup = albumCleanupRepository.findById(id).orElseThrow();
+        assertEquals(CleanupStatus.DONE, cleanup.getStatus());
+        assertEquals(2, cleanup.getAttempts());
+    }
+
+    @Test
+    void latestJobIsVisibleToItsAccountOnly() {
+        long id = albumCleanupService.deleteAlbum(deleted.getId(), accountId).getId();
+
+        assertEquals(id, albumCleanupService.findLatestByAlbumId(deleted.getId(), accountId).orElseThrow().getId());
+        assertTrue(albumCleanupService.findLatestByAlbumId(deleted.getId(), accountId + 1).isEmpty());
+    }
+
+    private long refCount(String hash) {
+        return photoBlobRepository.findById(hash).orElseThrow().getRefCount();
+    }
+
+    private Album album(Account account) {
+        Album album = new Album();
+        album.setName("Album");
+        album.setDescription("");
+        album.setAccount(account);
+        return albumRepository.save(album);
+    }
+
+    private static Photo photo(Album album, String hash) {
+        Photo photo = new Photo();
+        photo.setName("Photo");
+        photo.setFileName("photo.jpg");
+        photo.setContentHash(hash);
+        photo.setAlbum(album);
+        return photo;
+    }
+}
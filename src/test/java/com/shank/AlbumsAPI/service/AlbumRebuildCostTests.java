@@ -0,0 +1,132 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * What a write costs the next reader: with page entries one changed album meant
+ * rebuilding the whole page, every album on it; with album entries it means
+ * rebuilding that album. Both take the same two statements, so the difference is
+ * in rows (asserted) and time (logged; too noisy to assert).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import(AlbumViewService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class AlbumRebuildCostTests {
+
+    private static final int ALBUMS = 20;
+    private static final int PHOTOS_PER_ALBUM = 60;
+    private static final int PHOTOS_SHOWN = 50;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private PhotoRepository photoRepository;
+    @Autowired
+    private AlbumViewService albumViewService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> pageAlbumIds = new ArrayList<>();
+    private long changedAlbumId;
+
+    @BeforeEach
+    void setUp() {
+        photoRepository.deleteAll();
+        albumRepository.deleteAll();
+        accountRepository.deleteAll();
+        pageAlbumIds.clear();
+
+        Account account = new Account();
+        account.setEmail("rebuild@albumix.test");
+        account.setPassword("unused");
+        account = accountRepository.save(account);
+
+        List<Photo> photos = new ArrayList<>();
+        for (int a = 0; a < ALBUMS; a++) {
+            Album album = new Album();
+            album.setName("Album " + a);
+            album.setDescription("");
+            album.setAccount(account);
+            album = albumRepository.save(album);
+            pageAlbumIds.add(album.getId());
+            if (a == ALBUMS / 2) changedAlbumId = album.getId();
+            for (int p = 0; p < PHOTOS_PER_ALBUM; p++) {
+                Photo photo = new Photo();
+                photo.setName("Photo " + p);
+                photo.setAlbum(album);
+                photos.add(photo);
+            }
+        }
+        photoRepository.saveAll(photos);
+    }
+
+    @Test
+    void rebuildingOneAlbumCostsAFractionOfThePage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // warm up both paths before timing them
+        albumViewService.findAlbumViews(pageAlbumIds, PHOTOS_SHOWN);
+        albumViewService.findAlbumViews(List.of(changedAlbumId), PHOTOS_SHOWN);
+
+        statistics.clear();
+        long started = System.nanoTime();
+        Map<Long, AlbumViewDTO> page = null;
+        for (int i = 0; i < ROUNDS; i++) page = albumViewService.findAlbumViews(pageAlbumIds, PHOTOS_SHOWN);
+        long pageNanos = (System.nanoTime() - started) / ROUNDS;
+        long pageStatements = statistics.getPrepareStatementCount() / ROUNDS;
+
+        statistics.clear();
+        started = System.nanoTime();
+        Map<Long, AlbumViewDTO> albums = null;
+        for (int i = 0; i < ROUNDS; i++) albums = albumViewService.findAlbumViews(List.of(changedAlbumId), PHOTOS_SHOWN);
+        long albumNanos = (System.nanoTime() - started) / ROUNDS;
+        long albumStatements = statistics.getPrepareStatementCount() / ROUNDS;
+
+        int pageRows = rows(List.copyOf(page.values()));
+        int albumRows = rows(List.copyOf(albums.values()));
+        log.info("Rebuild after one album changed: page {} rows, {} statements, {} µs; album {} rows, {} statements, {} µs",
+                pageRows, pageStatements, pageNanos / 1000, albumRows, albumStatements, albumNanos / 1000);
+
+        assertEquals(2, pageStatements);
+        assertEquals(2, albumStatements);
+        assertEquals(ALBUMS * (PHOTOS_SHOWN + 1), pageRows);
+        assertEquals(PHOTOS_SHOWN + 1, albumRows);
+    }
+
+    // album rows plus photo rows shipped to the cache
+    private static int rows(List<AlbumViewDTO> albums) {
+        int rows = 0;
+        for (AlbumViewDTO album : albums) rows += 1 + album.getPhotos().size();
+        return rows;
+    }
+}
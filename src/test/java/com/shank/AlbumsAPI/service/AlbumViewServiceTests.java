@@ -0,0 +1,128 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.payload.albums.AlbumRowDTO;
+import com.shank.AlbumsAPI.payload.albums.AlbumViewDTO;
+import com.shank.AlbumsAPI.payload.albums.PhotoDTO;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Statement counts of the album read paths. Each builds its tree from row
+ * projections, so the count is fixed however many albums and photos there are,
+ * and no entities (with their lazy associations) are loaded.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import(AlbumViewService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AlbumViewServiceTests {
+
+    private static final int ALBUMS = 12;
+    private static final int PHOTOS_PER_ALBUM = 30;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private PhotoRepository photoRepository;
+    @Autowired
+    private AlbumViewService albumViewService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private long accountId;
+    private final List<Long> albumIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        photoRepository.deleteAll();
+        albumRepository.deleteAll();
+        accountRepository.deleteAll();
+        albumIds.clear();
+
+        Account account = new Account();
+        account.setEmail("views@albumix.test");
+        account.setPassword("unused");
+        accountId = accountRepository.save(account).getId();
+
+        List<Photo> photos = new ArrayList<>();
+        for (int a = 0; a < ALBUMS; a++) {
+            Album album = new Album();
+            album.setName("Album " + a);
+            album.setDescription("");
+            album.setAccount(account);
+            album = albumRepository.save(album);
+            albumIds.add(album.getId());
+            for (int p = 0; p < PHOTOS_PER_ALBUM; p++) {
+                Photo photo = new Photo();
+                photo.setName("Photo " + p);
+                photo.setAlbum(album);
+                photos.add(photo);
+            }
+        }
+        photoRepository.saveAll(photos);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // GET /albums/{id}: the album row, then one page of its photos
+    @Test
+    void albumByIdTakesTwoStatements() {
+        AlbumRowDTO row = albumViewService.findAlbumRow(albumIds.get(0)).orElseThrow();
+        AlbumViewDTO view = albumViewService.findAlbumViewPage(row, 0, 20);
+
+        assertEquals(20, view.getPhotos().size());
+        assertNotNull(view.getPhotosCursor());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    // PUT /albums/{id}/update answers with every photo of the album
+    @Test
+    void albumPhotosAfterUpdateTakeOneStatement() {
+        List<PhotoDTO> photos = albumViewService.findPhotosByAlbumId(albumIds.get(0));
+
+        assertEquals(PHOTOS_PER_ALBUM, photos.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    // GET /albums on a cold cache: the id index, then albums with their first photos
+    @Test
+    void albumListingTakesThreeStatementsForAnyNumberOfAlbums() {
+        albumViewService.findAlbumIndex(accountId);
+        Map<Long, AlbumViewDTO> views = albumViewService.findAlbumViews(albumIds, 5);
+
+        assertEquals(ALBUMS, views.size());
+        views.values().forEach(view -> assertEquals(5, view.getPhotos().size()));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
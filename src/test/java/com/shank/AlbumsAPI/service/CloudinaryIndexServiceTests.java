@@ -0,0 +1,122 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.shank.AlbumsAPI.payload.cloudinary.CloudinaryPageDTO;
+import com.shank.AlbumsAPI.payload.cloudinary.CloudinaryResourceDTO;
+import com.shank.AlbumsAPI.repository.CloudinaryAssetRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CloudinaryIndexServiceTests {
+
+    @Autowired
+    private CloudinaryAssetRepository cloudinaryAssetRepository;
+
+    private CloudinaryStandIn standIn;
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private CloudinaryIndexService cloudinaryIndexService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cloudinaryAssetRepository.deleteAll();
+        standIn = new CloudinaryStandIn();
+
+        Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "stand-in",
+                "api_key", "key",
+                "api_secret", "secret"));
+        cloudinary.config.uploadPrefix = standIn.url();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+
+        meterRegistry = new SimpleMeterRegistry();
+        CloudinaryService cloudinaryService =
+                new CloudinaryService(cloudinary, executor, meterRegistry, Long.MAX_VALUE, 1024, 10);
+        cloudinaryIndexService = new CloudinaryIndexService(cloudinaryAssetRepository, cloudinaryService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        standIn.close();
+    }
+
+    @Test
+    void emptyIndexFallsThroughToRemoteWithItsCursor() {
+        for (int i = 0; i < 3; i++) standIn.addResource("albumix_poc/remote-" + i);
+
+        CloudinaryPageDTO first = cloudinaryIndexService.list(null, 2).join();
+        assertEquals(2, first.getResources().size());
+        assertTrue(first.getNextCursor().startsWith(CloudinaryIndexService.REMOTE_CURSOR_PREFIX));
+
+        CloudinaryPageDTO second = cloudinaryIndexService.list(first.getNextCursor(), 2).join();
+        assertEquals(List.of("albumix_poc/remote-2"), publicIds(second));
+        assertNull(second.getNextCursor());
+        assertEquals(2.0, meterRegistry.get("cloudinary.list.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void reconciledIndexServesPagesWithoutTheAdminApi() {
+        for (int i = 0; i < 5; i++) standIn.addResource("albumix_poc/asset-" + i);
+        cloudinaryIndexService.reconcile();
+        int remoteCalls = standIn.requests().size();
+
+        CloudinaryPageDTO first = cloudinaryIndexService.list(null, 3).join();
+        CloudinaryPageDTO second = cloudinaryIndexService.list(first.getNextCursor(), 3).join();
+
+        assertEquals(List.of("albumix_poc/asset-0", "albumix_poc/asset-1", "albumix_poc/asset-2"), publicIds(first));
+        assertEquals(List.of("albumix_poc/asset-3", "albumix_poc/asset-4"), publicIds(second));
+        assertNull(second.getNextCursor());
+        assertEquals(remoteCalls, standIn.requests().size());
+        assertEquals(2.0, meterRegistry.get("cloudinary.list.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void reconcileDropsResourcesRemovedRemotely() {
+        standIn.addResource("albumix_poc/kept");
+        standIn.addResource("albumix_poc/gone");
+        cloudinaryIndexService.reconcile();
+
+        standIn.removeResource("albumix_poc/gone");
+        cloudinaryIndexService.reconcile();
+
+        assertEquals(List.of("albumix_poc/kept"), publicIds(cloudinaryIndexService.list(null, 10).join()));
+    }
+
+    @Test
+    void uploadsAndDeletesUpdateTheIndex() {
+        cloudinaryIndexService.reconcile();
+        cloudinaryIndexService.record(Map.of("public_id", "albumix_poc/new", "format", "png", "bytes", 42));
+        assertEquals(List.of("albumix_poc/new"), publicIds(cloudinaryIndexService.list(null, 10).join()));
+
+        cloudinaryIndexService.remove("albumix_poc/new");
+        assertTrue(cloudinaryIndexService.list(null, 10).join().getResources().isEmpty());
+    }
+
+    private static List<String> publicIds(CloudinaryPageDTO page) {
+        return page.getResources().stream().map(CloudinaryResourceDTO::getPublicId).toList();
+    }
+}
@@ -0,0 +1,164 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CloudinaryServiceTests {
+
+    private static final int CHUNK_THRESHOLD = 4096;
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path uploadDir;
+
+    private CloudinaryStandIn standIn;
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private CloudinaryService cloudinaryService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        new AppUtil().setUploadDir(uploadDir.toString());
+        standIn = new CloudinaryStandIn();
+
+        Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "stand-in",
+                "api_key", "key",
+                "api_secret", "secret"));
+        cloudinary.config.uploadPrefix = standIn.url();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(4);
+        executor.initialize();
+
+        meterRegistry = new SimpleMeterRegistry();
+        cloudinaryService = new CloudinaryService(cloudinary, executor, meterRegistry, CHUNK_THRESHOLD, CHUNK_SIZE, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        standIn.close();
+    }
+
+    @Test
+    void smallFileIsUploadedInOneRequest() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "small.jpg", "image/jpeg", new byte[1000]);
+
+        Map<?, ?> result = cloudinaryService.upload(file, "user@test", uploaded -> {}).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, standIn.requests().size());
+        assertNull(standIn.requests().get(0).contentRange());
+        assertNotNull(result.get("public_id"));
+        assertEquals(0.0, meterRegistry.get("cloudinary.upload.bytes.inflight").gauge().value());
+        assertEquals(1, meterRegistry.get("cloudinary.upload").timer().count());
+    }
+
+    @Test
+    void largeFileIsUploadedInChunks() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "large.jpg", "image/jpeg", new byte[5000]);
+
+        Map<?, ?> result = cloudinaryService.upload(file, "user@test", uploaded -> {}).get(10, TimeUnit.SECONDS);
+
+        assertEquals(5, standIn.requests().size());
+        assertTrue(standIn.requests().get(0).contentRange().startsWith("bytes 0-1023/"));
+        assertTrue(standIn.requests().get(4).contentRange().startsWith("bytes 4096-4999/"));
+        assertEquals(5000, ((Number) result.get("bytes")).intValue());
+        assertEquals(0.0, meterRegistry.get("cloudinary.upload.bytes.inflight").gauge().value());
+    }
+
+    @Test
+    void queuedUploadIsCancelledOnTimeout() throws Exception {
+        CloudinaryService service = withTimeout(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) executor.execute(() -> await(busy));
+        MockMultipartFile file = new MockMultipartFile("file", "small.jpg", "image/jpeg", new byte[1000]);
+        List<Map<?, ?>> recorded = new CopyOnWriteArrayList<>();
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class,
+                () -> service.upload(file, "user@test", recorded::add).get(10, TimeUnit.SECONDS));
+        busy.countDown();
+        executor.getThreadPoolExecutor().awaitTermination(0, TimeUnit.SECONDS);
+        Thread.sleep(200);
+
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+        assertEquals(1, meterRegistry.counter("cloudinary.cancelled").count());
+        assertEquals(0, executor.getThreadPoolExecutor().getQueue().size());
+        assertTrue(standIn.requests().isEmpty());
+        assertTrue(recorded.isEmpty());
+        assertEquals(0, staged());
+    }
+
+    @Test
+    void lateUploadIsStillRecorded() throws Exception {
+        CloudinaryService service = withTimeout(1);
+        standIn.delayUploads(1500);
+        MockMultipartFile file = new MockMultipartFile("file", "slow.jpg", "image/jpeg", new byte[1000]);
+        List<Map<?, ?>> recorded = new CopyOnWriteArrayList<>();
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class,
+                () -> service.upload(file, "user@test", recorded::add).get(10, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((recorded.isEmpty() || staged() > 0) && System.nanoTime() < deadline) Thread.sleep(20);
+
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+        assertEquals(0, meterRegistry.counter("cloudinary.cancelled").count());
+        assertEquals(1, recorded.size());
+        assertNotNull(recorded.get(0).get("public_id"));
+        assertEquals(0, staged());
+    }
+
+    private CloudinaryService withTimeout(long seconds) {
+        Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "stand-in",
+                "api_key", "key",
+                "api_secret", "secret"));
+        cloudinary.config.uploadPrefix = standIn.url();
+        return new CloudinaryService(cloudinary, executor, meterRegistry, CHUNK_THRESHOLD, CHUNK_SIZE, seconds);
+    }
+
+    // files left in the staging directory
+    private static long staged() throws Exception {
+        try (Stream<Path> files = Files.list(AppUtil.get_staging_path().getParent())) {
+            return files.count();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal HTTP stand-in for the Cloudinary upload and admin APIs, so the SDK can
+ * be exercised offline. Point {@code Cloudinary.config.uploadPrefix} at
+ * {@link #url()}. Every request is recorded; chunked uploads are answered per
+ * chunk with the running total, as the real API does.
+ *
+ * <p>Completed uploads (and {@link #addResource}) join an in-memory listing that
+ * the admin {@code resources} call pages through with {@code next_cursor}.
+ */
+class CloudinaryStandIn implements AutoCloseable {
+
+    record Recorded(String method, String path, String contentRange, long bodyBytes) {
+    }
+
+    private static final Pattern PUBLIC_ID_PART = Pattern.compile("name=\"public_id\"\r\n(?:[^\r\n]*\r\n)*\r\n([^\r\n]*)\r\n");
+
+    private final HttpServer server;
+    private final List<Recorded> requests = new CopyOnWriteArrayList<>();
+    private final List<String> resources = new CopyOnWriteArrayList<>();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private volatile long uploadDelayMillis;
+
+    CloudinaryStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    List<Recorded> requests() {
+        return requests;
+    }
+
+    void addResource(String publicId) {
+        resources.add(publicId);
+    }
+
+    void removeResource(String publicId) {
+        resources.remove(publicId);
+    }
+
+    // a slow remote: each upload request is answered this much later
+    void delayUploads(long millis) {
+        uploadDelayMillis = millis;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String contentRange = exchange.getRequestHeaders().getFirst("Content-Range");
+        requests.add(new Recorded(method, path, contentRange, body.length));
+
+        String json;
+        if (path.endsWith("/image/upload") && "POST".equals(method)) {
+            pause(uploadDelayMillis);
+            json = upload(contentRange, body.length);
+        } else if (path.endsWith("/destroy")) {
+            Matcher publicId = PUBLIC_ID_PART.matcher(new String(body, StandardCharsets.ISO_8859_1));
+            boolean removed = publicId.find() && resources.remove(publicId.group(1));
+            json = "{\"result\":\"" + (removed ? "ok" : "not found") + "\"}";
+        } else if (path.contains("/resources/") && "GET".equals(method)) {
+            json = list(query(exchange.getRequestURI().getRawQuery()));
+        } else {
+            json = "{\"error\":{\"message\":\"unsupported\"}}";
+        }
+
+        byte[] response = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        exchange.getResponseBody().write(response);
+        exchange.close();
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // "bytes <start>-<end>/<total or -1>": answer with the bytes received so far
+    private String upload(String contentRange, long bodyBytes) {
+        long received = bodyBytes;
+        boolean last = true;
+        if (contentRange != null) {
+            long end = Long.parseLong(contentRange.substring(contentRange.indexOf('-') + 1, contentRange.indexOf('/')));
+            long total = Long.parseLong(contentRange.substring(contentRange.indexOf('/') + 1));
+            received = end + 1;
+            last = total == received;
+        }
+        String publicId = "albumix_poc/stand-in-" + (last ? uploads.incrementAndGet() : uploads.get() + 1);
+        if (last) resources.add(publicId);
+        return resource(publicId, received);
+    }
+
+    private String list(Map<String, String> query) {
+        int maxResults = Integer.parseInt(query.getOrDefault("max_results", "10"));
+        int from = Integer.parseInt(query.getOrDefault("next_cursor", "0"));
+        List<String> snapshot = List.copyOf(resources);
+        int to = Math.min(snapshot.size(), from + maxResults);
+
+        StringBuilder json = new StringBuilder("{\"resources\":[");
+        for (int i = from; i < to; i++) {
+            if (i > from) json.append(',');
+            json.append(resource(snapshot.get(i), 1000));
+        }
+        json.append(']');
+        if (to < snapshot.size()) json.append(",\"next_cursor\":\"").append(to).append('"');
+        return json.append('}').toString();
+    }
+
+    private String resource(String publicId, long bytes) {
+        return "{\"public_id\":\"" + publicId + "\",\"format\":\"jpg\",\"resource_type\":\"image\","
+                + "\"version\":1,\"bytes\":" + bytes + ",\"width\":640,\"height\":480,"
+                + "\"created_at\":\"2026-01-01T00:00:00Z\","
+                + "\"url\":\"" + url() + "/" + publicId + ".jpg\","
+                + "\"secure_url\":\"" + url() + "/" + publicId + ".jpg\"}";
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
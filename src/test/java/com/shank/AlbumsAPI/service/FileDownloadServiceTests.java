@@ -0,0 +1,146 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Conditional and range requests against a stored file, without sendfile, so the
+ * body lands in the mock response.
+ */
+class FileDownloadServiceTests {
+
+    private static final int LENGTH = 1000;
+
+    @TempDir
+    Path dir;
+
+    private final FileDownloadService service = new FileDownloadService(new SimpleMeterRegistry());
+    private final byte[] bytes = new byte[LENGTH];
+    private Path file;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < LENGTH; i++) bytes[i] = (byte) i;
+        file = Files.write(dir.resolve("0123456789abcdef-photo.jpg"), bytes);
+        etag = FileDownloadService.etag(file.getFileName().toString(), LENGTH,
+                Files.getLastModifiedTime(file).toMillis());
+    }
+
+    @Test
+    void wholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = download(get());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(LENGTH, response.getContentLengthLong());
+        assertArrayEquals(bytes, response.getContentAsByteArray());
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void singleRangeIsPartial() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-199/" + LENGTH, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(100, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(bytes, 100, 200), response.getContentAsByteArray());
+    }
+
+    @Test
+    void rangeIsHonouredWhileIfRangeMatches() throws Exception {
+        MockHttpServletRequest current = get();
+        current.addHeader(HttpHeaders.RANGE, "bytes=-10");
+        current.addHeader(HttpHeaders.IF_RANGE, etag);
+        MockHttpServletRequest changed = get();
+        changed.addHeader(HttpHeaders.RANGE, "bytes=-10");
+        changed.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        MockHttpServletResponse partial = download(current);
+        MockHttpServletResponse whole = download(changed);
+
+        assertEquals(206, partial.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(bytes, LENGTH - 10, LENGTH), partial.getContentAsByteArray());
+        assertEquals(200, whole.getStatus());
+        assertNull(whole.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(bytes, whole.getContentAsByteArray());
+    }
+
+    @Test
+    void multipleRangesAreMultipart() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9,500-509");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-9/" + LENGTH));
+        assertTrue(body.contains("Content-Range: bytes 500-509/" + LENGTH));
+        assertEquals(response.getContentLengthLong(), response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + LENGTH + "-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + LENGTH, response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void rangesAddingUpToMoreThanTheFileAreNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + "0-,".repeat(99) + "0-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/v2/albums/1/photos/1/download-photo");
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.write(request, response, file, "image/jpeg", "photo.jpg", FileDownloadService.REVALIDATE);
+        return response;
+    }
+}
@@ -0,0 +1,226 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.shank.AlbumsAPI.service.FileDownloadService.Content;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Recovery and compaction of the pack store on 4 KiB segments, so a few 1000-byte
+ * thumbnails fill one. Reopening a store is what a restart does: the index is
+ * rebuilt from the segment files alone.
+ */
+class PackThumbnailStoreTests {
+
+    private static final int SEGMENT_BYTES = 4096;
+    private static final int THUMBNAIL = 1000;
+
+    @TempDir
+    Path uploadDir;
+
+    private final List<PackThumbnailStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(PackThumbnailStore::close);
+    }
+
+    @Test
+    void thumbnailsSurviveARestart() throws IOException {
+        PackThumbnailStore store = open();
+        for (int i = 0; i < 6; i++) store.write(location("1", i), bytes(i, THUMBNAIL));
+
+        PackThumbnailStore reopened = reopen(store);
+
+        for (int i = 0; i < 6; i++) assertArrayEquals(bytes(i, THUMBNAIL), read(reopened, location("1", i)));
+    }
+
+    @Test
+    void restartsKeepAppendingToTheNewestSegment() throws IOException {
+        PackThumbnailStore store = open();
+        store.write(location("1", 0), bytes(0, 100));
+        store = reopen(store);
+        store.write(location("1", 1), bytes(1, 100));
+        store = reopen(store);
+
+        assertEquals(1, segmentFiles().size());
+        assertArrayEquals(bytes(0, 100), read(store, location("1", 0)));
+        assertArrayEquals(bytes(1, 100), read(store, location("1", 1)));
+    }
+
+    @Test
+    void corruptTailIsDroppedAndEarlierRecordsSurvive() throws IOException {
+        PackThumbnailStore store = open();
+        store.write(location("1", 0), bytes(0, THUMBNAIL));
+        store.write(location("1", 1), bytes(1, THUMBNAIL));
+        store.close();
+        // one flipped byte in the data of the second record
+        Path segment = segmentFiles().get(0);
+        int flipped = 2 * THUMBNAIL;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, flipped);
+            b.put(0, (byte) ~b.get(0)).rewind();
+            channel.write(b, flipped);
+        }
+
+        PackThumbnailStore reopened = open();
+
+        assertArrayEquals(bytes(0, THUMBNAIL), read(reopened, location("1", 0)));
+        assertFalse(reopened.exists(location("1", 1)));
+        // appended over the dropped record, and readable after the next restart
+        reopened.write(location("1", 2), bytes(2, 10));
+        PackThumbnailStore again = reopen(reopened);
+        assertArrayEquals(bytes(0, THUMBNAIL), read(again, location("1", 0)));
+        assertArrayEquals(bytes(2, 10), read(again, location("1", 2)));
+        assertFalse(again.exists(location("1", 1)));
+    }
+
+    @Test
+    void recordTornByATruncatedSegmentIsDropped() throws IOException {
+        PackThumbnailStore store = open();
+        for (int i = 0; i < 5; i++) store.write(location("1", i), bytes(i, THUMBNAIL));
+        store.close();
+        // the first segment holds records 0-2; cut it inside record 2
+        Path sealed = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(sealed, StandardOpenOption.WRITE)) {
+            channel.truncate(2 * THUMBNAIL + THUMBNAIL + 100);
+        }
+
+        PackThumbnailStore reopened = open();
+
+        assertArrayEquals(bytes(0, THUMBNAIL), read(reopened, location("1", 0)));
+        assertArrayEquals(bytes(1, THUMBNAIL), read(reopened, location("1", 1)));
+        assertFalse(reopened.exists(location("1", 2)));
+        assertArrayEquals(bytes(3, THUMBNAIL), read(reopened, location("1", 3)));
+        assertArrayEquals(bytes(4, THUMBNAIL), read(reopened, location("1", 4)));
+    }
+
+    @Test
+    void latestWriteWinsAfterARestart() throws IOException {
+        PackThumbnailStore store = open();
+        Path location = location("1", 0);
+        for (int version = 0; version < 5; version++) store.write(location, bytes(version, THUMBNAIL));
+
+        PackThumbnailStore reopened = reopen(store);
+
+        assertTrue(segmentFiles().size() > 1);
+        assertArrayEquals(bytes(4, THUMBNAIL), read(reopened, location));
+    }
+
+    @Test
+    void tombstoneHidesAnOlderSegmentAcrossRestartsAndCompaction() throws IOException {
+        PackThumbnailStore store = open();
+        Path deleted = location("1", 0);
+        Path rewritten = location("2", 0);
+        // segment 1, filled so the tombstone cannot follow: the record to delete, then three live thumbnails
+        store.write(deleted, bytes(0, 900));
+        for (int i = 1; i <= 3; i++) store.write(location("1", i), bytes(i, THUMBNAIL));
+        // segment 2: the tombstone, then the same thumbnail three times
+        store.delete(deleted);
+        for (int version = 0; version < 3; version++) store.write(rewritten, bytes(version, THUMBNAIL));
+        // segment 3 becomes the active one
+        store.write(location("3", 0), bytes(9, THUMBNAIL));
+        assertEquals(3, segmentFiles().size());
+
+        store = reopen(store);
+        assertFalse(store.exists(deleted));
+
+        Content beforeCompaction = store.open(rewritten);
+        store.compact();
+
+        // segment 2 is gone; segment 1 has too little dead data to be compacted
+        assertEquals(List.of("00000001.pack", "00000003.pack"),
+                segmentFiles().stream().map(p -> p.getFileName().toString()).toList());
+        assertArrayEquals(bytes(2, THUMBNAIL), read(store, rewritten));
+        assertArrayEquals(bytes(2, THUMBNAIL), read(beforeCompaction));
+        assertFalse(store.exists(deleted));
+
+        PackThumbnailStore reopened = reopen(store);
+        // the tombstone was carried into segment 3, so segment 1's record stays hidden
+        assertFalse(reopened.exists(deleted));
+        assertArrayEquals(bytes(2, THUMBNAIL), read(reopened, rewritten));
+        for (int i = 1; i <= 3; i++) assertArrayEquals(bytes(i, THUMBNAIL), read(reopened, location("1", i)));
+    }
+
+    @Test
+    void deleteUnderRemovesOneAlbumOnly() throws IOException {
+        PackThumbnailStore store = open();
+        store.write(location("7", 0), bytes(0, 100));
+        store.write(location("7", 1), bytes(1, 100));
+        store.write(location("77", 0), bytes(2, 100));
+
+        store.deleteUnder(uploadDir.resolve("7"));
+
+        assertFalse(store.exists(location("7", 0)));
+        assertFalse(store.exists(location("7", 1)));
+        assertThrows(NoSuchFileException.class, () -> store.open(location("7", 0)));
+        PackThumbnailStore reopened = reopen(store);
+        assertFalse(reopened.exists(location("7", 0)));
+        assertFalse(reopened.exists(location("7", 1)));
+        assertArrayEquals(bytes(2, 100), read(reopened, location("77", 0)));
+    }
+
+    private PackThumbnailStore open() throws IOException {
+        PackThumbnailStore store = new PackThumbnailStore(uploadDir.toString(), SEGMENT_BYTES, 0.5,
+                new SimpleMeterRegistry());
+        store.open();
+        stores.add(store);
+        return store;
+    }
+
+    private PackThumbnailStore reopen(PackThumbnailStore store) throws IOException {
+        store.close();
+        stores.remove(store);
+        return open();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir.resolve("packs"))) {
+            return files.sorted().toList();
+        }
+    }
+
+    private Path location(String album, int photo) {
+        return uploadDir.resolve(album).resolve("thumbnails_300").resolve(photo + ".jpg");
+    }
+
+    private static byte[] read(PackThumbnailStore store, Path location) throws IOException {
+        return read(store.open(location));
+    }
+
+    private static byte[] read(Content content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.copyTo(out, 0, content.length());
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(int seed, int length) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) (seed + 1));
+        bytes[0] = (byte) seed;
+        return bytes;
+    }
+}
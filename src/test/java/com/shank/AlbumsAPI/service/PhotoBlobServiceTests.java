@@ -0,0 +1,201 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shank.AlbumsAPI.model.Account;
+import com.shank.AlbumsAPI.model.Album;
+import com.shank.AlbumsAPI.model.Photo;
+import com.shank.AlbumsAPI.model.PhotoBlob;
+import com.shank.AlbumsAPI.repository.AccountRepository;
+import com.shank.AlbumsAPI.repository.AlbumRepository;
+import com.shank.AlbumsAPI.repository.PhotoBlobRepository;
+import com.shank.AlbumsAPI.repository.PhotoRepository;
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+
+/**
+ * Reference counts against the blob files in a temp upload directory. Each call
+ * commits on its own, as it does in production, so a rollback is observable.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({PhotoBlobService.class, FileThumbnailStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PhotoBlobServiceTests {
+
+    private static final String HASH = "ab" + "0".repeat(62);
+    private static final List<String> THUMBNAIL_FOLDERS = List.of("thumbnails_300", "thumbnails_1200");
+
+    @TempDir
+    Path uploadDir;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private PhotoBlobService photoBlobService;
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+    @Autowired
+    private PhotoRepository photoRepository;
+    @Autowired
+    private AlbumRepository albumRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        new AppUtil().setUploadDir(uploadDir.toString());
+        when(thumbnailService.getThumbnailFolders()).thenReturn(THUMBNAIL_FOLDERS);
+
+        photoRepository.deleteAll();
+        photoBlobRepository.deleteAll();
+        albumRepository.deleteAll();
+        accountRepository.deleteAll();
+        account = new Account();
+        account.setEmail("blobs@albumix.test");
+        account.setPassword("unused");
+        account = accountRepository.save(account);
+    }
+
+    @Test
+    void secondAcquireCountsAReferenceAndDropsItsCopy() throws IOException {
+        Path first = staged("photo");
+        Path second = staged("photo");
+
+        assertTrue(photoBlobService.acquire(HASH, first, 5));
+        assertFalse(photoBlobService.acquire(HASH, second, 5));
+
+        assertEquals(2, refCount(HASH));
+        assertFalse(Files.exists(first));
+        assertFalse(Files.exists(second));
+        assertEquals("photo", Files.readString(original(HASH)));
+    }
+
+    @Test
+    void lastReleaseRemovesTheOriginalAndEveryThumbnail() throws IOException {
+        photoBlobService.acquire(HASH, staged("photo"), 5);
+        photoBlobService.acquire(HASH, staged("photo"), 5);
+        List<Path> thumbnails = thumbnails(HASH);
+
+        assertFalse(photoBlobService.release(HASH));
+        assertEquals(1, refCount(HASH));
+        assertTrue(Files.exists(original(HASH)));
+        thumbnails.forEach(thumbnail -> assertTrue(Files.exists(thumbnail)));
+
+        assertTrue(photoBlobService.release(HASH));
+        assertTrue(photoBlobRepository.findById(HASH).isEmpty());
+        assertFalse(Files.exists(original(HASH)));
+        thumbnails.forEach(thumbnail -> assertFalse(Files.exists(thumbnail)));
+    }
+
+    @Test
+    void failedMoveRollsBackTheBlobAndThePhotoHash() {
+        Photo photo = photoRepository.save(photo(album(), null));
+        Path neverStaged = uploadDir.resolve("tmp").resolve("missing");
+
+        assertThrows(NoSuchFileException.class, () -> photoBlobService.adopt(photo, HASH, neverStaged, 5));
+
+        assertTrue(photoBlobRepository.findById(HASH).isEmpty());
+        assertNull(photoRepository.findById(photo.getId()).orElseThrow().getContentHash());
+    }
+
+    @Test
+    void albumReleaseCountsEveryPhotoHoldingTheHash() throws IOException {
+        Album deleted = album();
+        Album kept = album();
+        for (int i = 0; i < 3; i++) photoBlobService.acquire(HASH, staged("photo"), 5);
+        photoRepository.saveAll(List.of(photo(deleted, HASH), photo(deleted, HASH), photo(kept, HASH)));
+
+        int updated = new TransactionTemplate(transactionManager)
+                .execute(status -> photoBlobRepository.releaseAlbumReferences(deleted.getId()));
+
+        assertEquals(1, updated);
+        assertEquals(1, refCount(HASH));
+    }
+
+    @Test
+    void sweepIsIdempotentAndSparesAReacquiredBlob() throws IOException {
+        photoBlobService.acquire(HASH, staged("photo"), 5);
+        List<Path> thumbnails = thumbnails(HASH);
+        setRefCount(HASH, 0);
+
+        assertTrue(photoBlobService.sweep(HASH));
+        assertFalse(photoBlobService.sweep(HASH));
+        assertFalse(Files.exists(original(HASH)));
+        thumbnails.forEach(thumbnail -> assertFalse(Files.exists(thumbnail)));
+
+        photoBlobService.acquire(HASH, staged("photo"), 5);
+        setRefCount(HASH, 0);
+        photoBlobService.acquire(HASH, staged("photo"), 5);
+
+        assertFalse(photoBlobService.sweep(HASH));
+        assertEquals(1, refCount(HASH));
+        assertTrue(Files.exists(original(HASH)));
+    }
+
+    private Path staged(String content) throws IOException {
+        return Files.writeString(AppUtil.get_staging_path(), content);
+    }
+
+    private static Path original(String hash) {
+        return AppUtil.get_blob_path(hash, PhotoStorageService.PHOTOS_FOLDER_NAME);
+    }
+
+    private static List<Path> thumbnails(String hash) throws IOException {
+        for (String folder : THUMBNAIL_FOLDERS) Files.writeString(AppUtil.get_blob_upload_path(hash, folder), folder);
+        return THUMBNAIL_FOLDERS.stream().map(folder -> AppUtil.get_blob_path(hash, folder)).toList();
+    }
+
+    private long refCount(String hash) {
+        return photoBlobRepository.findById(hash).orElseThrow().getRefCount();
+    }
+
+    private void setRefCount(String hash, long refCount) {
+        PhotoBlob blob = photoBlobRepository.findById(hash).orElseThrow();
+        blob.setRefCount(refCount);
+        photoBlobRepository.save(blob);
+    }
+
+    private Album album() {
+        Album album = new Album();
+        album.setName("Album");
+        album.setDescription("");
+        album.setAccount(account);
+        return albumRepository.save(album);
+    }
+
+    private static Photo photo(Album album, String hash) {
+        Photo photo = new Photo();
+        photo.setName("Photo");
+        photo.setFileName("photo.jpg");
+        photo.setContentHash(hash);
+        photo.setAlbum(album);
+        return photo;
+    }
+}
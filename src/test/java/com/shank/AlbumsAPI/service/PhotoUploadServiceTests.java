@@ -0,0 +1,176 @@
+package com.shank.AlbumsAPI.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.shank.AlbumsAPI.util.apputils.AppUtil;
+import com.shank.AlbumsAPI.util.constants.ImageType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The type of an upload comes from its first bytes, never from the part's
+ * declared content type. Blobs are a mock that keeps whatever it is handed.
+ */
+class PhotoUploadServiceTests {
+
+    @TempDir
+    Path uploadDir;
+
+    private final PhotoBlobService photoBlobService = mock(PhotoBlobService.class);
+    private final PhotoUploadService service = new PhotoUploadService(photoBlobService, new SimpleMeterRegistry(), 2);
+    private Path kept;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new AppUtil().setUploadDir(uploadDir.toString());
+        kept = uploadDir.resolve("kept");
+        doAnswer(invocation -> {
+            Files.copy(invocation.<Path>getArgument(1), kept);
+            return true;
+        }).when(photoBlobService).acquire(anyString(), any(Path.class), anyLong());
+    }
+
+    @Test
+    void pngIsStoredWithItsTypeHashAndDimensions() throws Exception {
+        byte[] png = image("png", 40, 30);
+
+        PhotoUploadService.StoredUpload upload = service.store(part("image/png", png));
+
+        assertEquals(ImageType.PNG, upload.type());
+        assertEquals(png.length, upload.byteSize());
+        assertEquals(40, upload.width());
+        assertEquals(30, upload.height());
+        assertEquals(sha256(png), upload.hash());
+        assertArrayEquals(png, Files.readAllBytes(kept));
+        assertStagingIsEmpty();
+    }
+
+    @Test
+    void jpegIsRecognisedWhateverTheDeclaredType() throws Exception {
+        byte[] jpeg = image("jpeg", 64, 48);
+
+        PhotoUploadService.StoredUpload upload = service.store(part("application/octet-stream", jpeg));
+
+        assertEquals(ImageType.JPEG, upload.type());
+        assertEquals(64, upload.width());
+        assertEquals(48, upload.height());
+        assertEquals(sha256(jpeg), upload.hash());
+    }
+
+    @Test
+    void nonImageClaimingToBeJpegIsRefused() throws Exception {
+        byte[] html = "<html><script>alert(1)</script></html>".getBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> service.store(part("image/jpeg", html)));
+
+        verify(photoBlobService, never()).acquire(anyString(), any(Path.class), anyLong());
+        assertStagingIsEmpty();
+    }
+
+    @Test
+    void headerShorterThanAnySignatureIsRefused() throws Exception {
+        byte[] truncated = {(byte) 0x89, 0x50, 0x4E};
+
+        assertThrows(IllegalArgumentException.class, () -> service.store(part("image/png", truncated)));
+
+        verify(photoBlobService, never()).acquire(anyString(), any(Path.class), anyLong());
+        assertStagingIsEmpty();
+    }
+
+    @Test
+    void signatureWithoutAnImageBehindItIsRefused() throws Exception {
+        byte[] png = image("png", 40, 30);
+        byte[] signatureOnly = Arrays.copyOf(png, ImageType.MAGIC_LENGTH);
+
+        assertThrows(IOException.class, () -> service.store(part("image/png", signatureOnly)));
+
+        verify(photoBlobService, never()).acquire(anyString(), any(Path.class), anyLong());
+        assertStagingIsEmpty();
+    }
+
+    @Test
+    void batchIsStoredConcurrentlyWithinTheBoundAndReportedInOrder() throws Exception {
+        AtomicInteger storing = new AtomicInteger();
+        AtomicInteger mostAtOnce = new AtomicInteger();
+        doAnswer(invocation -> {
+            mostAtOnce.accumulateAndGet(storing.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            storing.decrementAndGet();
+            return true;
+        }).when(photoBlobService).acquire(anyString(), any(Path.class), anyLong());
+        MultipartFile[] files = new MultipartFile[6];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = i == 2
+                    ? new MockMultipartFile("files", "bad", "image/png", new byte[] {1, 2, 3})
+                    : new MockMultipartFile("files", "photo" + i, "image/png", image("png", 10 + i, 10));
+        }
+
+        List<PhotoUploadService.BatchItem> items = service.storeAll(files);
+
+        assertEquals(files.length, items.size());
+        for (int i = 0; i < files.length; i++) {
+            assertSame(files[i], items.get(i).file());
+            if (i == 2) {
+                assertInstanceOf(IllegalArgumentException.class, items.get(i).error());
+            } else {
+                assertEquals(10 + i, items.get(i).upload().width());
+            }
+        }
+        // parallelism 2
+        assertTrue(mostAtOnce.get() <= 2);
+    }
+
+    private static MockMultipartFile part(String contentType, byte[] body) {
+        return new MockMultipartFile("files", "upload", contentType, body);
+    }
+
+    private static byte[] image(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(width / 2, height / 2, 0xFF8800);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private void assertStagingIsEmpty() throws IOException {
+        try (Stream<Path> staged = Files.list(uploadDir.resolve("tmp"))) {
+            assertTrue(staged.findAny().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.shank.AlbumsAPI.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-memory Redis speaking RESP2 on a local port, so the application's
+ * Lettuce client, templates and listener container run unchanged. It covers
+ * what the application issues: strings with expiry and NX, MGET, DEL, hashes,
+ * PEXPIRE, pub/sub and the {@code RedisLock} release script. One lock orders
+ * all commands, as Redis' single thread does; network round trips are real,
+ * command cost is not.
+ */
+public class RedisStandIn implements AutoCloseable {
+
+    // RedisLock's compare-and-delete; any other script is refused
+    static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private static final class Entry {
+        Object value; // byte[] or Map<String, byte[]>
+        long expiresAt; // epoch millis, 0 = never
+
+        Entry(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Connection {
+        final Socket socket;
+        final OutputStream out;
+        final Set<String> channels = new LinkedHashSet<>();
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        }
+    }
+
+    private final ServerSocket server;
+    private final ExecutorService threads = Executors.newCachedThreadPool(
+            Thread.ofPlatform().daemon().name("redis-stand-in-", 0).factory());
+    private final Object lock = new Object();
+    private final Map<String, Entry> data = new HashMap<>();
+    private final Map<String, Set<Connection>> subscribers = new HashMap<>();
+    private final Set<String> loadedScripts = new HashSet<>();
+    private final AtomicLong commands = new AtomicLong();
+
+    public RedisStandIn() throws IOException {
+        server = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        threads.execute(this::accept);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public long commands() {
+        return commands.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        threads.shutdownNow();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                threads.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Connection connection = null;
+        try (socket) {
+            connection = new Connection(socket);
+            InputStream in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            List<byte[]> args;
+            while ((args = readCommand(in)) != null) {
+                commands.incrementAndGet();
+                ByteArrayOutputStream reply = new ByteArrayOutputStream(256);
+                boolean quit = execute(connection, args, reply);
+                synchronized (connection) {
+                    reply.writeTo(connection.out);
+                    // pipelined commands are answered in one write
+                    if (quit || in.available() == 0) connection.out.flush();
+                }
+                if (quit) return;
+            }
+        } catch (IOException e) {
+            // client went away
+        } finally {
+            if (connection != null) unsubscribeAll(connection);
+        }
+    }
+
+    private boolean execute(Connection connection, List<byte[]> args, ByteArrayOutputStream reply) {
+        String command = new String(args.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+        synchronized (lock) {
+            switch (command) {
+                case "PING" -> {
+                    if (args.size() > 1) bulk(reply, args.get(1));
+                    else simple(reply, "PONG");
+                }
+                case "AUTH", "SELECT", "CLIENT", "READONLY" -> simple(reply, "OK");
+                case "QUIT" -> {
+                    simple(reply, "OK");
+                    return true;
+                }
+                case "INFO" -> bulk(reply, "# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n"
+                        .getBytes(StandardCharsets.US_ASCII));
+                case "GET" -> {
+                    Object value = value(key(args, 1));
+                    if (value instanceof Map<?, ?>) wrongType(reply);
+                    else bulk(reply, (byte[]) value);
+                }
+                case "SET" -> set(args, reply);
+                case "PSETEX", "SETEX" -> {
+                    Entry entry = new Entry(args.get(3));
+                    long amount = Long.parseLong(text(args, 2));
+                    entry.expiresAt = now() + ("SETEX".equals(command) ? amount * 1000 : amount);
+                    data.put(key(args, 1), entry);
+                    simple(reply, "OK");
+                }
+                case "MGET" -> {
+                    List<byte[]> values = new ArrayList<>();
+                    for (int i = 1; i < args.size(); i++) {
+                        values.add(value(key(args, i)) instanceof byte[] bytes ? bytes : null);
+                    }
+                    array(reply, values);
+                }
+                case "DEL", "UNLINK" -> {
+                    long removed = 0;
+                    for (int i = 1; i < args.size(); i++) {
+                        if (live(key(args, i)) != null && data.remove(key(args, i)) != null) removed++;
+                    }
+                    integer(reply, removed);
+                }
+                case "EXISTS" -> {
+                    long found = 0;
+                    for (int i = 1; i < args.size(); i++) {
+                        if (live(key(args, i)) != null) found++;
+                    }
+                    integer(reply, found);
+                }
+                case "PEXPIRE", "EXPIRE" -> {
+                    Entry entry = live(key(args, 1));
+                    long amount = Long.parseLong(text(args, 2));
+                    if (entry != null) entry.expiresAt = now() + ("EXPIRE".equals(command) ? amount * 1000 : amount);
+                    integer(reply, entry != null ? 1 : 0);
+                }
+                case "HGET" -> {
+                    Object value = value(key(args, 1));
+                    if (value instanceof byte[]) wrongType(reply);
+                    else bulk(reply, value == null ? null : hash(value).get(key(args, 2)));
+                }
+                case "HSET" -> hset(args, reply);
+                case "HDEL" -> {
+                    Object value = value(key(args, 1));
+                    long removed = 0;
+                    if (value instanceof Map<?, ?>) {
+                        for (int i = 2; i < args.size(); i++) {
+                            if (hash(value).remove(key(args, i)) != null) removed++;
+                        }
+                    }
+                    integer(reply, removed);
+                }
+                case "EVAL" -> {
+                    String script = text(args, 1);
+                    if (!RELEASE_SCRIPT.equals(script)) {
+                        error(reply, "ERR script not supported by the stand-in");
+                    } else {
+                        loadedScripts.add(sha1(script));
+                        release(args, reply);
+                    }
+                }
+                case "EVALSHA" -> {
+                    if (loadedScripts.contains(text(args, 1).toLowerCase(Locale.ROOT))) release(args, reply);
+                    else error(reply, "NOSCRIPT No matching script. Please use EVAL.");
+                }
+                case "PUBLISH" -> integer(reply, publish(key(args, 1), args.get(2)));
+                case "SUBSCRIBE" -> {
+                    for (int i = 1; i < args.size(); i++) {
+                        String channel = key(args, i);
+                        connection.channels.add(channel);
+                        subscribers.computeIfAbsent(channel, c -> new LinkedHashSet<>()).add(connection);
+                        subscription(reply, "subscribe", channel, connection.channels.size());
+                    }
+                }
+                case "UNSUBSCRIBE" -> {
+                    List<String> channels = new ArrayList<>();
+                    for (int i = 1; i < args.size(); i++) channels.add(key(args, i));
+                    if (channels.isEmpty()) channels.addAll(connection.channels);
+                    for (String channel : channels) {
+                        connection.channels.remove(channel);
+                        Set<Connection> listening = subscribers.get(channel);
+                        if (listening != null) listening.remove(connection);
+                        subscription(reply, "unsubscribe", channel, connection.channels.size());
+                    }
+                }
+                default -> error(reply, "ERR unknown command '" + command + "'");
+            }
+        }
+        return false;
+    }
+
+    // SET key value [NX|XX] [EX s|PX ms|KEEPTTL]
+    private void set(List<byte[]> args, ByteArrayOutputStream reply) {
+        String key = key(args, 1);
+        boolean nx = false;
+        boolean xx = false;
+        boolean keepTtl = false;
+        long ttl = 0;
+        for (int i = 3; i < args.size(); i++) {
+            switch (text(args, i).toUpperCase(Locale.ROOT)) {
+                case "NX" -> nx = true;
+                case "XX" -> xx = true;
+                case "KEEPTTL" -> keepTtl = true;
+                case "EX" -> ttl = Long.parseLong(text(args, ++i)) * 1000;
+                case "PX" -> ttl = Long.parseLong(text(args, ++i));
+                default -> {
+                    error(reply, "ERR syntax error");
+                    return;
+                }
+            }
+        }
+        Entry existing = live(key);
+        if ((nx && existing != null) || (xx && existing == null)) {
+            bulk(reply, null);
+            return;
+        }
+        Entry entry = new Entry(args.get(2));
+        if (keepTtl && existing != null) entry.expiresAt = existing.expiresAt;
+        if (ttl > 0) entry.expiresAt = now() + ttl;
+        data.put(key, entry);
+        simple(reply, "OK");
+    }
+
+    private void hset(List<byte[]> args, ByteArrayOutputStream reply) {
+        String key = key(args, 1);
+        Entry entry = live(key);
+        if (entry == null) {
+            entry = new Entry(new HashMap<String, byte[]>());
+            data.put(key, entry);
+        } else if (entry.value instanceof byte[]) {
+            wrongType(reply);
+            return;
+        }
+        Map<String, byte[]> fields = hash(entry.value);
+        long added = 0;
+        for (int i = 2; i + 1 < args.size(); i += 2) {
+            if (fields.put(key(args, i), args.get(i + 1)) == null) added++;
+        }
+        integer(reply, added);
+    }
+
+    // EVAL(SHA) script 1 key token
+    private void release(List<byte[]> args, ByteArrayOutputStream reply) {
+        String key = key(args, 3);
+        boolean held = value(key) instanceof byte[] token && Arrays.equals(token, args.get(4));
+        if (held) data.remove(key);
+        integer(reply, held ? 1 : 0);
+    }
+
+    private long publish(String channel, byte[] message) {
+        Set<Connection> listening = subscribers.getOrDefault(channel, Set.of());
+        ByteArrayOutputStream push = new ByteArrayOutputStream();
+        push.writeBytes("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+        bulk(push, "message".getBytes(StandardCharsets.US_ASCII));
+        bulk(push, channel.getBytes(StandardCharsets.ISO_8859_1));
+        bulk(push, message);
+        for (Connection connection : listening) {
+            synchronized (connection) {
+                try {
+                    push.writeTo(connection.out);
+                    connection.out.flush();
+                } catch (IOException e) {
+                    // the reader's loop ends and unsubscribes it
+                }
+            }
+        }
+        return listening.size();
+    }
+
+    private void unsubscribeAll(Connection connection) {
+        synchronized (lock) {
+            for (String channel : connection.channels) {
+                Set<Connection> listening = subscribers.get(channel);
+                if (listening != null) listening.remove(connection);
+            }
+            connection.channels.clear();
+        }
+    }
+
+    private Entry live(String key) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.expiresAt != 0 && entry.expiresAt <= now()) {
+            data.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private Object value(String key) {
+        Entry entry = live(key);
+        return entry == null ? null : entry.value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, byte[]> hash(Object value) {
+        return (Map<String, byte[]>) value;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    // keys and fields are binary; ISO-8859-1 maps each byte to one char and back
+    private static String key(List<byte[]> args, int index) {
+        return new String(args.get(index), StandardCharsets.ISO_8859_1);
+    }
+
+    private static String text(List<byte[]> args, int index) {
+        return new String(args.get(index), StandardCharsets.UTF_8);
+    }
+
+    private static String sha1(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ── RESP2 ────────────────────────────────────────────────
+
+    // clients always send commands as arrays of bulk strings
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) return null;
+        if (type != '*') throw new IOException("Expected a RESP array, got '" + (char) type + "'");
+        int count = (int) readNumber(in);
+        List<byte[]> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') throw new IOException("Expected a RESP bulk string");
+            int length = (int) readNumber(in);
+            byte[] arg = in.readNBytes(length);
+            if (arg.length < length || in.readNBytes(2).length < 2) throw new IOException("Truncated command");
+            args.add(arg);
+        }
+        return args.isEmpty() ? readCommand(in) : args;
+    }
+
+    private static long readNumber(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) throw new IOException("Truncated command");
+            if (b == '-') negative = true;
+            else value = value * 10 + (b - '0');
+        }
+        in.read();
+        return negative ? -value : value;
+    }
+
+    private static void simple(ByteArrayOutputStream out, String value) {
+        out.writeBytes(("+" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void error(ByteArrayOutputStream out, String message) {
+        out.writeBytes(("-" + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void wrongType(ByteArrayOutputStream out) {
+        error(out, "WRONGTYPE Operation against a key holding the wrong kind of value");
+    }
+
+    private static void integer(ByteArrayOutputStream out, long value) {
+        out.writeBytes((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(ByteArrayOutputStream out, byte[] value) {
+        if (value == null) {
+            out.writeBytes("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.writeBytes(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(value);
+        out.writeBytes(CRLF);
+    }
+
+    private static void array(ByteArrayOutputStream out, List<byte[]> values) {
+        out.writeBytes(("*" + values.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (byte[] value : values) bulk(out, value);
+    }
+
+    private static void subscription(ByteArrayOutputStream out, String kind, String channel, int count) {
+        out.writeBytes("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+        bulk(out, kind.getBytes(StandardCharsets.US_ASCII));
+        bulk(out, channel.getBytes(StandardCharsets.ISO_8859_1));
+        integer(out, count);
+    }
+}